@@ -1,19 +1,57 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import data.DataStore;
 import data.TestData;
+import data.WriteAheadLog;
+import interfaces.IStockListener;
 import menu.MainMenu;
+import models.Book;
 import services.BookService;
 import services.OrderService;
 
 public class Main {
+    private static final Path DATA_DIRECTORY = Paths.get("bookstore-data");
+    private static final long GROUP_COMMIT_MILLIS = 5;
+
+    private DataStore dataStore;
     private BookService bookService;
     private OrderService orderService;
     private MainMenu mainMenu;
 
-    // Initialize services and menu
-    public Main() {
-        TestData.initializeData();
-        this.bookService = TestData.bookService;
-        this.orderService = TestData.orderService;
+    // Recover saved state (or load sample data on first run) and initialize menu
+    public Main() throws IOException {
+        this.dataStore = DataStore.open(DATA_DIRECTORY, WriteAheadLog.SyncMode.BATCH, GROUP_COMMIT_MILLIS);
+        this.bookService = dataStore.getBookService();
+        this.orderService = dataStore.getOrderService();
+        if (dataStore.isEmpty()) {
+            TestData.initializeData(bookService, orderService);
+        }
+        // ID lookups already work from the mapped catalog; build the search indexes in the background
+        Thread indexer = new Thread(bookService::loadSource, "catalog-indexer");
+        indexer.setDaemon(true);
+        indexer.start();
+        bookService.getStockMonitor().addListener(new IStockListener() {
+            @Override
+            public void lowStock(Book book, int quantity) {
+                System.out.println("[Stock alert] \"" + book.getTitle() + "\" (ID " + book.getBookID()
+                        + ") is down to " + quantity);
+            }
+
+            @Override
+            public void restocked(Book book, int quantity) {
+                System.out.println("[Stock alert] \"" + book.getTitle() + "\" (ID " + book.getBookID()
+                        + ") restocked to " + quantity);
+            }
+        });
         this.mainMenu = new MainMenu(bookService, orderService);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                dataStore.close();
+            } catch (IOException e) {
+                System.out.println("Error saving data: " + e.getMessage());
+            }
+        }));
     }
 
     // Application entry point
@@ -0,0 +1,286 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import models.Book;
+
+// Stable, run-adaptive merge sort (TimSort-style) for composite sort specifications.
+// Keys are extracted once per sort into long[]: numbers directly, titles and authors as
+// precomputed collation ranks (each row's position among the distinct strings, sorted once with
+// String.compareTo, as SortAlgorithm and the sorted views order them). Comparisons in the merge
+// passes are then integer compares that never touch the Book objects or the strings.
+public class MultiKeySort {
+    private static final int MIN_MERGE = 32; // Runs shorter than this are extended by insertion sort
+
+    private final long[][] keys; // Per spec key: numeric key or text rank by book index
+    private final boolean[] descending;
+    private int[] tmp; // Merge buffer, allocated once per sort
+
+    private MultiKeySort(Book[] books, SortSpec spec) {
+        int keyCount = spec.size();
+        this.keys = new long[keyCount][];
+        this.descending = new boolean[keyCount];
+        for (int k = 0; k < keyCount; k++) {
+            descending[k] = spec.isDescending(k);
+            switch (spec.getKey(k)) {
+                case ID:
+                    keys[k] = new long[books.length];
+                    for (int i = 0; i < books.length; i++) {
+                        keys[k][i] = books[i].getBookID();
+                    }
+                    break;
+                case STOCK:
+                    keys[k] = new long[books.length];
+                    for (int i = 0; i < books.length; i++) {
+                        keys[k][i] = books[i].getQuantity();
+                    }
+                    break;
+                case PRICE:
+                    keys[k] = new long[books.length];
+                    for (int i = 0; i < books.length; i++) {
+                        keys[k][i] = sortableBits(books[i].getPrice());
+                    }
+                    break;
+                case TITLE: {
+                    String[] titles = new String[books.length];
+                    for (int i = 0; i < books.length; i++) {
+                        titles[i] = books[i].getTitle();
+                    }
+                    keys[k] = collationRanks(titles);
+                    break;
+                }
+                case AUTHOR: {
+                    String[] authors = new String[books.length];
+                    for (int i = 0; i < books.length; i++) {
+                        authors[i] = books[i].getAuthor();
+                    }
+                    keys[k] = collationRanks(authors);
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Invalid sort criteria");
+            }
+        }
+    }
+
+    // Stable sort of books by spec; books with equal keys keep their input order
+    public static void sort(Book[] books, SortSpec spec) {
+        if (books == null || spec == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        int n = books.length;
+        if (n < 2) {
+            return;
+        }
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        new MultiKeySort(books, spec).timSort(order);
+
+        Book[] sorted = new Book[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = books[order[i]];
+        }
+        System.arraycopy(sorted, 0, books, 0, n);
+    }
+
+    // Compare two book indexes by every key in turn
+    private int compare(int a, int b) {
+        for (int k = 0; k < descending.length; k++) {
+            int cmp = Long.compare(keys[k][a], keys[k][b]);
+            if (cmp != 0) {
+                return descending[k] ? -cmp : cmp;
+            }
+        }
+        return 0;
+    }
+
+    private void timSort(int[] a) {
+        int n = a.length;
+        tmp = new int[n / 2 + 1];
+        int[] runBase = new int[49];
+        int[] runLen = new int[49];
+        int stackSize = 0;
+        int minRun = minRunLength(n);
+
+        int low = 0;
+        while (low < n) {
+            int len = countRunAndMakeAscending(a, low, n);
+            if (len < minRun) {
+                int force = Math.min(n - low, minRun);
+                binaryInsertionSort(a, low, low + force, low + len);
+                len = force;
+            }
+            runBase[stackSize] = low;
+            runLen[stackSize] = len;
+            stackSize++;
+            stackSize = mergeCollapse(a, runBase, runLen, stackSize, false);
+            low += len;
+        }
+        mergeCollapse(a, runBase, runLen, stackSize, true);
+    }
+
+    // Merge runs until the stack invariants hold (or down to one run when forced)
+    private int mergeCollapse(int[] a, int[] runBase, int[] runLen, int stackSize, boolean force) {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (force) {
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+            } else if ((n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1])
+                    || (n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])) {
+                if (runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeRuns(a, runBase[n], runLen[n], runLen[n + 1]);
+            runLen[n] += runLen[n + 1];
+            // Shift the run above the merged pair down
+            if (n == stackSize - 3) {
+                runBase[n + 1] = runBase[n + 2];
+                runLen[n + 1] = runLen[n + 2];
+            }
+            stackSize--;
+        }
+        return stackSize;
+    }
+
+    // Stable merge of adjacent runs a[base, base+len1) and a[base+len1, base+len1+len2)
+    private void mergeRuns(int[] a, int base, int len1, int len2) {
+        int mid = base + len1;
+        int end = mid + len2;
+        // Skip the prefix of run 1 already in place and the suffix of run 2 already in place
+        int start = upperBound(a, base, mid, a[mid]);
+        int stop = lowerBound(a, mid, end, a[mid - 1]);
+        if (start == mid || stop == mid) {
+            return;
+        }
+        int leftLen = mid - start;
+        if (tmp.length < leftLen) {
+            tmp = new int[leftLen];
+        }
+        System.arraycopy(a, start, tmp, 0, leftLen);
+        int i = 0;
+        int j = mid;
+        int k = start;
+        while (i < leftLen && j < stop) {
+            a[k++] = compare(a[j], tmp[i]) < 0 ? a[j++] : tmp[i++];
+        }
+        while (i < leftLen) {
+            a[k++] = tmp[i++];
+        }
+    }
+
+    // Length of run starting at low; strictly descending runs are reversed (keeps stability)
+    private int countRunAndMakeAscending(int[] a, int low, int high) {
+        int runHigh = low + 1;
+        if (runHigh == high) {
+            return 1;
+        }
+        if (compare(a[runHigh++], a[low]) < 0) {
+            while (runHigh < high && compare(a[runHigh], a[runHigh - 1]) < 0) {
+                runHigh++;
+            }
+            for (int i = low, j = runHigh - 1; i < j; i++, j--) {
+                int swap = a[i];
+                a[i] = a[j];
+                a[j] = swap;
+            }
+        } else {
+            while (runHigh < high && compare(a[runHigh], a[runHigh - 1]) >= 0) {
+                runHigh++;
+            }
+        }
+        return runHigh - low;
+    }
+
+    // Sort a[low, high) where a[low, start) is already sorted
+    private void binaryInsertionSort(int[] a, int low, int high, int start) {
+        for (int i = start; i < high; i++) {
+            int pivot = a[i];
+            int position = upperBound(a, low, i, pivot); // After equal keys: stable
+            System.arraycopy(a, position, a, position + 1, i - position);
+            a[position] = pivot;
+        }
+    }
+
+    // First position in [low, high) whose key is greater than key's
+    private int upperBound(int[] a, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(a[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position in [low, high) whose key is not less than key's
+    private int lowerBound(int[] a, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(a[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Run length that makes n / minRun close to a power of two
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    // Rank of each string among the distinct values in String.compareTo order (equal strings share
+    // a rank). Rows are interned into dictionary IDs with one hash lookup each, so only the distinct
+    // strings are sorted.
+    private static long[] collationRanks(String[] values) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        int[] rowIds = new int[values.length];
+        String[] distinct = new String[16];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            Integer id = dictionary.get(values[i]);
+            if (id == null) {
+                id = count;
+                dictionary.put(values[i], id);
+                if (count == distinct.length) {
+                    distinct = Arrays.copyOf(distinct, count * 2);
+                }
+                distinct[count++] = values[i];
+            }
+            rowIds[i] = id;
+        }
+        String[] sorted = Arrays.copyOf(distinct, count);
+        Arrays.sort(sorted);
+        int[] rankById = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            rankById[dictionary.get(sorted[rank])] = rank;
+        }
+        long[] ranks = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ranks[i] = rankById[rowIds[i]];
+        }
+        return ranks;
+    }
+
+    // Map double to long whose signed order matches Double.compare
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+}
@@ -1,42 +1,435 @@
 package algorithms;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import models.Book;
 
 public class SortAlgorithm {
 
     public enum SortBy {
-        ID,    // Sort by ID
-        TITLE, // Sort by title
-        PRICE  // Sort by price
+        ID,     // Sort by ID
+        TITLE,  // Sort by title
+        PRICE,  // Sort by price
+        AUTHOR, // Sort by author
+        STOCK   // Sort by stock quantity
     }
 
+    private static final int INSERTION_SORT_THRESHOLD = 16; // Ranges this small use insertion sort
+    private static final int NINTHER_THRESHOLD = 128; // Ranges this large use ninther pivots
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 8192; // Ranges this small sort sequentially
+
+    // Introsort: quicksort with heapsort fallback, O(n log n) worst case
     public static void quickSort(Book[] books, SortBy sortBy) {
         if (books == null || sortBy == null) {
             throw new IllegalArgumentException("Arguments cannot be null");
         }
-        quickSort(books, 0, books.length - 1, sortBy); // Start sorting
+        if (books.length < 2 || isPresorted(books, sortBy)) {
+            return;
+        }
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(books.length));
+        introSort(books, 0, books.length - 1, depthLimit, sortBy); // Start sorting
+    }
+
+    // Sort on extracted primitive keys (radix for ID and STOCK, packed cents for PRICE); same result as quickSort
+    public static void keySort(Book[] books, SortBy sortBy) {
+        if (books == null || sortBy == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        int n = books.length;
+        if (n < 2) {
+            return;
+        }
+        if (sortBy == SortBy.TITLE || sortBy == SortBy.AUTHOR) {
+            quickSort(books, sortBy); // No primitive key for strings
+            return;
+        }
+
+        int[] ids = new int[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = books[i].getBookID();
+            order[i] = i;
+        }
+        order = radixSort(ids, order);
+
+        if (sortBy == SortBy.STOCK) {
+            // Stable radix pass over ID order leaves equal stock sorted by ID
+            int[] quantities = new int[n];
+            for (int i = 0; i < n; i++) {
+                quantities[i] = books[i].getQuantity();
+            }
+            order = radixSort(quantities, order);
+        }
+
+        if (sortBy == SortBy.PRICE) {
+            // Pack (price in cents, rank in ID order) into one long so a primitive sort
+            // orders by price and breaks ties by ID
+            long[] packed = new long[n];
+            for (int rank = 0; rank < n; rank++) {
+                double price = books[order[rank]].getPrice();
+                long cents = Math.round(price * 100);
+                if (cents > Integer.MAX_VALUE || cents / 100.0 != price) {
+                    quickSort(books, sortBy); // Not whole cents: packed key would lose precision
+                    return;
+                }
+                packed[rank] = (cents << 32) | rank;
+            }
+            Arrays.sort(packed);
+            int[] byId = order;
+            order = new int[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = byId[(int) packed[i]];
+            }
+        }
+
+        // Apply the permutation in one pass
+        Book[] sorted = new Book[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = books[order[i]];
+        }
+        System.arraycopy(sorted, 0, books, 0, n);
+    }
+
+    // Stable LSD radix sort (8-bit digits) of index permutation order by keys[index]
+    private static int[] radixSort(int[] keys, int[] order) {
+        int n = order.length;
+        int[] next = new int[n];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[digit(keys[order[i]], shift) + 1]++;
+            }
+            if (counts[digit(keys[order[0]], shift) + 1] == n) {
+                continue; // Every key has the same digit, pass would not move anything
+            }
+            for (int d = 0; d < 256; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < n; i++) {
+                int index = order[i];
+                next[counts[digit(keys[index], shift)]++] = index;
+            }
+            int[] swap = order;
+            order = next;
+            next = swap;
+        }
+        return order;
+    }
+
+    // Digit of key at shift, with the sign bit flipped so negative keys sort first
+    private static int digit(int key, int shift) {
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & 0xFF;
+    }
+
+    // Parallel merge sort on the common ForkJoinPool; same result as quickSort
+    public static void parallelSort(Book[] books, SortBy sortBy) {
+        parallelSort(books, sortBy, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    // Parallel merge sort on a dedicated pool with the given parallelism
+    public static void parallelSort(Book[] books, SortBy sortBy, int parallelism, int sequentialThreshold) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parallelSort(books, sortBy, pool, sequentialThreshold);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Parallel merge sort on pool; ranges up to sequentialThreshold use introsort
+    public static void parallelSort(Book[] books, SortBy sortBy, ForkJoinPool pool, int sequentialThreshold) {
+        if (books == null || sortBy == null || pool == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (sequentialThreshold < INSERTION_SORT_THRESHOLD) {
+            throw new IllegalArgumentException("Sequential threshold must be at least " + INSERTION_SORT_THRESHOLD);
+        }
+        if (books.length <= sequentialThreshold) {
+            quickSort(books, sortBy);
+            return;
+        }
+        Book[] buffer = new Book[books.length];
+        pool.invoke(new SortTask(books, buffer, 0, books.length, sortBy, sequentialThreshold));
+    }
+
+    // Sorts books[low, high) in place, using buffer[low, high) as scratch space
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Book[] books;
+        private final Book[] buffer;
+        private final int low;
+        private final int high;
+        private final SortBy sortBy;
+        private final int threshold;
+
+        private SortTask(Book[] books, Book[] buffer, int low, int high, SortBy sortBy, int threshold) {
+            this.books = books;
+            this.buffer = buffer;
+            this.low = low;
+            this.high = high;
+            this.sortBy = sortBy;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int n = high - low;
+            if (n <= threshold) {
+                int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+                introSort(books, low, high - 1, depthLimit, sortBy);
+                return;
+            }
+            int mid = (low + high) >>> 1;
+            invokeAll(new SortTask(books, buffer, low, mid, sortBy, threshold),
+                    new SortTask(books, buffer, mid, high, sortBy, threshold));
+            if (compare(books[mid - 1], books[mid], sortBy) <= 0) {
+                return; // Halves already in order
+            }
+            System.arraycopy(books, low, buffer, low, n);
+            new MergeTask(buffer, low, mid, mid, high, books, low, sortBy, threshold).compute();
+        }
+    }
+
+    // Merges sorted runs src[low1, high1) and src[low2, high2) into dest starting at destLow
+    private static class MergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Book[] src;
+        private final int low1;
+        private final int high1;
+        private final int low2;
+        private final int high2;
+        private final Book[] dest;
+        private final int destLow;
+        private final SortBy sortBy;
+        private final int threshold;
+
+        private MergeTask(Book[] src, int low1, int high1, int low2, int high2,
+                Book[] dest, int destLow, SortBy sortBy, int threshold) {
+            this.src = src;
+            this.low1 = low1;
+            this.high1 = high1;
+            this.low2 = low2;
+            this.high2 = high2;
+            this.dest = dest;
+            this.destLow = destLow;
+            this.sortBy = sortBy;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = high1 - low1;
+            int n2 = high2 - low2;
+            if (n1 + n2 <= threshold) {
+                mergeSequential();
+                return;
+            }
+            // Split the larger run at its middle and the other run at the matching position
+            int mid1;
+            int mid2;
+            if (n1 >= n2) {
+                mid1 = (low1 + high1) >>> 1;
+                mid2 = lowerBound(src, low2, high2, src[mid1], sortBy);
+            } else {
+                mid2 = (low2 + high2) >>> 1;
+                mid1 = upperBound(src, low1, high1, src[mid2], sortBy);
+            }
+            int destMid = destLow + (mid1 - low1) + (mid2 - low2);
+            invokeAll(new MergeTask(src, low1, mid1, low2, mid2, dest, destLow, sortBy, threshold),
+                    new MergeTask(src, mid1, high1, mid2, high2, dest, destMid, sortBy, threshold));
+        }
+
+        private void mergeSequential() {
+            int i = low1;
+            int j = low2;
+            int k = destLow;
+            while (i < high1 && j < high2) {
+                dest[k++] = compare(src[j], src[i], sortBy) < 0 ? src[j++] : src[i++];
+            }
+            while (i < high1) {
+                dest[k++] = src[i++];
+            }
+            while (j < high2) {
+                dest[k++] = src[j++];
+            }
+        }
+    }
+
+    // First index in [low, high) whose book is not less than key
+    private static int lowerBound(Book[] books, int low, int high, Book key, SortBy sortBy) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(books[mid], key, sortBy) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First index in [low, high) whose book is greater than key
+    private static int upperBound(Book[] books, int low, int high, Book key, SortBy sortBy) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(books[mid], key, sortBy) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Detect ascending input (nothing to do) or descending input (reverse it)
+    private static boolean isPresorted(Book[] books, SortBy sortBy) {
+        int n = books.length;
+        int i = 1;
+        while (i < n && compare(books[i - 1], books[i], sortBy) <= 0) {
+            i++;
+        }
+        if (i == n) {
+            return true;
+        }
+        if (i > 1) {
+            return false; // Started ascending, then broke
+        }
+        while (i < n && compare(books[i - 1], books[i], sortBy) > 0) {
+            i++;
+        }
+        if (i == n) {
+            reverse(books, 0, n - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static void introSort(Book[] books, int low, int high, int depthLimit, SortBy sortBy) {
+        while (high - low + 1 > INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(books, low, high, sortBy); // Too many bad pivots
+                return;
+            }
+
+            // 3-way partition on the sort key alone (the ID tie-break would make every key distinct):
+            // [low, lt) < pivot, [lt, gt] == pivot, (gt, high] > pivot
+            Book pivot = books[choosePivot(books, low, high, sortBy)];
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                int cmp = compareKey(books[i], pivot, sortBy);
+                if (cmp < 0) {
+                    swap(books, lt++, i++);
+                } else if (cmp > 0) {
+                    swap(books, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (gt > lt && sortBy != SortBy.ID) {
+                sortById(books, lt, gt); // Equal keys: only the ID tie-break is left to apply
+            }
+
+            // Recurse into the smaller side, loop on the larger one (stack depth O(log n))
+            if (lt - low < high - gt) {
+                introSort(books, low, lt - 1, depthLimit, sortBy);
+                low = gt + 1;
+            } else {
+                introSort(books, gt + 1, high, depthLimit, sortBy);
+                high = lt - 1;
+            }
+        }
+        insertionSort(books, low, high, sortBy);
+    }
+
+    // Sort books[low, high] by ID alone
+    private static void sortById(Book[] books, int low, int high) {
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(high - low + 1));
+        introSort(books, low, high, depthLimit, SortBy.ID);
+    }
+
+    // Median of three for medium ranges, ninther (median of medians) for large ones
+    private static int choosePivot(Book[] books, int low, int high, SortBy sortBy) {
+        int mid = low + (high - low) / 2;
+        if (high - low + 1 < NINTHER_THRESHOLD) {
+            return medianOfThree(books, low, mid, high, sortBy);
+        }
+        int step = (high - low + 1) / 8;
+        int a = medianOfThree(books, low, low + step, low + 2 * step, sortBy);
+        int b = medianOfThree(books, mid - step, mid, mid + step, sortBy);
+        int c = medianOfThree(books, high - 2 * step, high - step, high, sortBy);
+        return medianOfThree(books, a, b, c, sortBy);
+    }
+
+    private static int medianOfThree(Book[] books, int a, int b, int c, SortBy sortBy) {
+        if (compare(books[a], books[b], sortBy) < 0) {
+            if (compare(books[b], books[c], sortBy) < 0) {
+                return b;
+            }
+            return compare(books[a], books[c], sortBy) < 0 ? c : a;
+        }
+        if (compare(books[a], books[c], sortBy) < 0) {
+            return a;
+        }
+        return compare(books[b], books[c], sortBy) < 0 ? c : b;
     }
 
-    private static void quickSort(Book[] books, int low, int high, SortBy sortBy) {
-        if (low < high) {
-            int pi = partition(books, low, high, sortBy); // Partition array
-            quickSort(books, low, pi - 1, sortBy); // Sort left part
-            quickSort(books, pi + 1, high, sortBy); // Sort right part
+    private static void insertionSort(Book[] books, int low, int high, SortBy sortBy) {
+        for (int i = low + 1; i <= high; i++) {
+            Book current = books[i];
+            int j = i - 1;
+            while (j >= low && compare(books[j], current, sortBy) > 0) {
+                books[j + 1] = books[j];
+                j--;
+            }
+            books[j + 1] = current;
         }
     }
 
-    private static int partition(Book[] books, int low, int high, SortBy sortBy) {
-        Book pivot = books[high]; // Pivot element
-        int i = low - 1;
+    private static void heapSort(Book[] books, int low, int high, SortBy sortBy) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(books, low, i, n, sortBy);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(books, low, low + end); // Move current max to the end
+            siftDown(books, low, 0, end, sortBy);
+        }
+    }
 
-        for (int j = low; j < high; j++) {
-            if (compare(books[j], pivot, sortBy) < 0) { // Compare elements
-                i++;
-                swap(books, i, j); // Swap elements
+    // Restore max-heap property for heap stored at books[offset .. offset + n)
+    private static void siftDown(Book[] books, int offset, int i, int n, SortBy sortBy) {
+        Book value = books[offset + i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
             }
+            if (child + 1 < n && compare(books[offset + child + 1], books[offset + child], sortBy) > 0) {
+                child++;
+            }
+            if (compare(books[offset + child], value, sortBy) <= 0) {
+                break;
+            }
+            books[offset + i] = books[offset + child];
+            i = child;
+        }
+        books[offset + i] = value;
+    }
+
+    private static void reverse(Book[] books, int low, int high) {
+        while (low < high) {
+            swap(books, low++, high--);
         }
-        swap(books, i + 1, high); // Place pivot correctly
-        return i + 1;
     }
 
     private static void swap(Book[] books, int i, int j) {
@@ -45,7 +438,22 @@ public class SortAlgorithm {
         books[j] = temp;
     }
 
+    // Comparator for sortBy with book ID as tie-breaker (total order, for sorted indexes)
+    public static Comparator<Book> comparator(SortBy sortBy) {
+        if (sortBy == null) {
+            throw new IllegalArgumentException("Sort type cannot be null");
+        }
+        return (b1, b2) -> compare(b1, b2, sortBy);
+    }
+
+    // Compare by criterion, breaking ties by book ID so every sort result is deterministic
     private static int compare(Book b1, Book b2, SortBy sortBy) {
+        int cmp = compareKey(b1, b2, sortBy);
+        return cmp != 0 ? cmp : Integer.compare(b1.getBookID(), b2.getBookID());
+    }
+
+    // Compare by criterion only; books with equal keys compare as 0
+    private static int compareKey(Book b1, Book b2, SortBy sortBy) {
         switch (sortBy) {
             case ID:
                 return Integer.compare(b1.getBookID(), b2.getBookID());
@@ -53,6 +461,10 @@ public class SortAlgorithm {
                 return b1.getTitle().compareTo(b2.getTitle());
             case PRICE:
                 return Double.compare(b1.getPrice(), b2.getPrice());
+            case AUTHOR:
+                return b1.getAuthor().compareTo(b2.getAuthor());
+            case STOCK:
+                return Integer.compare(b1.getQuantity(), b2.getQuantity());
             default:
                 throw new IllegalArgumentException("Invalid sort criteria");
         }
@@ -0,0 +1,92 @@
+package algorithms;
+
+import java.util.Arrays;
+import algorithms.SortAlgorithm.SortBy;
+
+// Composite sort specification, e.g. "PRICE desc, TITLE asc"
+public class SortSpec {
+    private final SortBy[] keys;
+    private final boolean[] descending;
+
+    private SortSpec(SortBy[] keys, boolean[] descending) {
+        this.keys = keys;
+        this.descending = descending;
+    }
+
+    // Create spec with a single key
+    public static SortSpec of(SortBy sortBy, boolean descending) {
+        if (sortBy == null) {
+            throw new IllegalArgumentException("Sort type cannot be null");
+        }
+        return new SortSpec(new SortBy[] { sortBy }, new boolean[] { descending });
+    }
+
+    // Return a new spec with an additional tie-breaking key
+    public SortSpec then(SortBy sortBy, boolean descending) {
+        if (sortBy == null) {
+            throw new IllegalArgumentException("Sort type cannot be null");
+        }
+        SortBy[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        boolean[] newDescending = Arrays.copyOf(this.descending, keys.length + 1);
+        newKeys[keys.length] = sortBy;
+        newDescending[keys.length] = descending;
+        return new SortSpec(newKeys, newDescending);
+    }
+
+    // Parse comma-separated "KEY [asc|desc]" terms, case-insensitive
+    public static SortSpec parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Sort specification cannot be empty");
+        }
+        SortSpec spec = null;
+        for (String term : text.split(",")) {
+            String[] parts = term.trim().split("\\s+");
+            if (parts.length == 0 || parts.length > 2 || parts[0].isEmpty()) {
+                throw new IllegalArgumentException("Invalid sort term: " + term.trim());
+            }
+            SortBy sortBy;
+            try {
+                sortBy = SortBy.valueOf(parts[0].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort key: " + parts[0]);
+            }
+            boolean desc = false;
+            if (parts.length == 2) {
+                if (parts[1].equalsIgnoreCase("desc")) {
+                    desc = true;
+                } else if (!parts[1].equalsIgnoreCase("asc")) {
+                    throw new IllegalArgumentException("Invalid sort direction: " + parts[1]);
+                }
+            }
+            spec = spec == null ? of(sortBy, desc) : spec.then(sortBy, desc);
+        }
+        return spec;
+    }
+
+    // Get number of keys
+    public int size() {
+        return keys.length;
+    }
+
+    // Get key at position
+    public SortBy getKey(int index) {
+        return keys[index];
+    }
+
+    // Check if key at position sorts descending
+    public boolean isDescending(int index) {
+        return descending[index];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                result.append(", ");
+            }
+            result.append(keys[i]).append(descending[i] ? " desc" : " asc");
+        }
+        return result.toString();
+    }
+}
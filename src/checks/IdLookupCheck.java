@@ -0,0 +1,177 @@
+package checks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+import algorithms.SearchAlgorithm;
+import algorithms.SortAlgorithm.SortBy;
+import data_structures.IndexedInventoryList;
+import data_structures.IntHashMap;
+import models.Book;
+import services.BookService;
+
+// Runnable correctness check for ID lookups. IntHashMap is driven through random puts, removes
+// and lookups from its default capacity (so it resizes many times) and compared with a plain
+// array after every step. BookService.findBookById is compared with a linear scan and with
+// SearchAlgorithm.binarySearchById on an ID-sorted copy, for present, removed and never-issued
+// IDs, as the catalog grows and after removals. Finally, lookups are timed and checked to
+// allocate nothing (so no per-lookup copy or sort happens).
+// Usage: java checks.IdLookupCheck
+public class IdLookupCheck {
+    private static final int KEY_RANGE = 4_096; // Map keys are drawn from [-KEY_RANGE, KEY_RANGE)
+    private static final int MAP_OPERATIONS = 1_000_000;
+    private static final int BOOK_COUNT = 20_000;
+    private static final int TIMED_LOOKUPS = 2_000_000;
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        Random random = new Random(args.length > 0 ? Long.parseLong(args[0]) : 42);
+        checkMap(random);
+        checkBookService(random);
+        System.out.println(failures == 0 ? "PASSED" : "FAILED (" + failures + " mismatches)");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    // Random operations on IntHashMap against an array indexed by key
+    private static void checkMap(Random random) {
+        IntHashMap<Integer> map = new IntHashMap<>();
+        Integer[] reference = new Integer[2 * KEY_RANGE];
+        int size = 0;
+        int maxSize = 0;
+        for (int op = 0; op < MAP_OPERATIONS; op++) {
+            // Insert-heavy first half grows the table, remove-heavy second half shrinks the contents
+            boolean growing = op < MAP_OPERATIONS / 2;
+            int key = random.nextInt(2 * KEY_RANGE) - KEY_RANGE;
+            int slot = key + KEY_RANGE;
+            int choice = random.nextInt(10);
+            if (choice < (growing ? 5 : 2)) {
+                Integer value = random.nextInt();
+                expect(map.put(key, value), reference[slot], "put " + key);
+                if (reference[slot] == null) {
+                    size++;
+                }
+                reference[slot] = value;
+            } else if (choice < 6) {
+                expect(map.remove(key), reference[slot], "remove " + key);
+                if (reference[slot] != null) {
+                    size--;
+                }
+                reference[slot] = null;
+            } else {
+                expect(map.get(key), reference[slot], "get " + key);
+                if (map.containsKey(key) != (reference[slot] != null)) {
+                    fail("containsKey " + key);
+                }
+            }
+            if (map.size() != size) {
+                fail("size " + map.size() + " != " + size);
+            }
+            maxSize = Math.max(maxSize, size);
+        }
+        // Every key once more, present or not
+        for (int key = -KEY_RANGE; key < KEY_RANGE; key++) {
+            expect(map.get(key), reference[key + KEY_RANGE], "final get " + key);
+        }
+        System.out.println("IntHashMap: " + MAP_OPERATIONS + " random operations, up to " + maxSize
+                + " entries, " + size + " at the end");
+    }
+
+    // Catalog lookups against a linear scan and a binary search, while growing and after removals
+    private static void checkBookService(Random random) {
+        BookService books = new BookService(new IndexedInventoryList<>(Book::getBookID));
+        int firstId = new Book("Probe", "Probe", 1, 0).getBookID() + 1; // Next ID the catalog will get
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            books.addBook("Lookup Book " + i, "Author " + (i % 50), 1 + i % 40, i % 20);
+            if ((i & (i + 1)) == 0) { // 1, 2, 4, 8, ... books: every resize of the index along the way
+                compareAll(books, firstId, firstId + i + 1);
+            }
+        }
+        int lastId = firstId + BOOK_COUNT; // Exclusive
+        compareAll(books, firstId, lastId);
+
+        int removed = 0;
+        for (int id = firstId; id < lastId; id++) {
+            if (random.nextInt(3) == 0 && books.removeBook(id)) {
+                removed++;
+            }
+        }
+        compareAll(books, firstId, lastId);
+        for (int i = 0; i < BOOK_COUNT / 10; i++) {
+            books.addBook("Late Book " + i, "Author", 5, 1); // Refills slots freed by the removals
+        }
+        lastId += BOOK_COUNT / 10;
+        compareAll(books, firstId, lastId);
+        System.out.println("BookService: " + BOOK_COUNT + " books added, " + removed + " removed, "
+                + BOOK_COUNT / 10 + " added after removals; every ID in [" + Math.max(1, firstId - 100) + ", "
+                + (lastId + 100) + ") matched");
+
+        // Lookups must not copy or sort: measure allocation and time over many of them
+        int span = lastId - firstId;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long hits = 0;
+        for (int i = 0; i < TIMED_LOOKUPS; i++) {
+            if (books.findBookById(firstId + (int) ((i * 0x9E3779B9L) & 0x7FFFFFFF) % span) != null) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBefore < 0 ? -1 : allocatedBytes() - allocatedBefore;
+        System.out.printf("Lookups: %d in %d ms (%.0f ns each, %d hits), %s%n", TIMED_LOOKUPS, elapsed / 1_000_000,
+                (double) elapsed / TIMED_LOOKUPS, hits,
+                allocated < 0 ? "allocation not measurable on this JVM" : allocated + " bytes allocated");
+        if (allocated > TIMED_LOOKUPS / 100) { // Well under one byte per lookup (allows JIT/profiler noise)
+            fail("lookups allocated " + allocated + " bytes");
+        }
+    }
+
+    // Compare findBookById with a linear scan and a binary search for IDs around [fromId, toId)
+    private static void compareAll(BookService books, int fromId, int toId) {
+        Book[] catalog = books.getAllBooks(SortBy.ID);
+        Book[] byId = catalog.clone();
+        Arrays.sort(byId, (a, b) -> Integer.compare(a.getBookID(), b.getBookID()));
+        for (int id = Math.max(1, fromId - 100); id < toId + 100; id++) {
+            Book expected = null;
+            for (Book book : catalog) {
+                if (book.getBookID() == id) {
+                    expected = book;
+                    break;
+                }
+            }
+            Book found = books.findBookById(id);
+            if (found != expected) {
+                fail("findBookById(" + id + ") returned " + describe(found) + ", scan found " + describe(expected));
+            }
+            int index = SearchAlgorithm.binarySearchById(byId, id);
+            if ((index < 0 ? null : byId[index]) != expected) {
+                fail("binarySearchById(" + id + ") disagrees with scan");
+            }
+        }
+    }
+
+    // Bytes allocated by this thread so far, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static void expect(Integer actual, Integer expected, String operation) {
+        if (actual == null ? expected != null : !actual.equals(expected)) {
+            fail(operation + ": got " + actual + ", expected " + expected);
+        }
+    }
+
+    private static String describe(Book book) {
+        return book == null ? "null" : "#" + book.getBookID();
+    }
+
+    private static void fail(String message) {
+        if (failures++ < 20) {
+            System.out.println("Mismatch: " + message);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package checks;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import data_structures.ConcurrentOrderQueue;
+import data_structures.OrderQueue;
+import interfaces.IOrderQueue;
+
+// Runnable multi-producer multi-consumer check for ConcurrentOrderQueue. Producers offer tagged
+// items (producer, sequence) while consumers poll concurrently. Afterwards every item must have
+// been dequeued exactly once, each consumer must have seen every producer's items in increasing
+// sequence (FIFO per producer, as a linearizable queue guarantees), and the queue must be empty.
+// The same run against a synchronized OrderQueue validates the checker and gives a throughput
+// baseline. Usage: java checks.OrderQueueCheck [items per producer]
+public class OrderQueueCheck {
+    private static final int[] THREAD_PAIRS = { 1, 2, 4 }; // Producers = consumers = this many
+    private static final int DEFAULT_ITEMS = 250_000;
+
+    // Baseline: single-threaded queue behind one lock
+    private static class SynchronizedQueue<E> implements IOrderQueue<E> {
+        private final OrderQueue<E> queue = new OrderQueue<>();
+
+        @Override public synchronized void offer(E element) { queue.offer(element); }
+        @Override public synchronized E poll() { return queue.isEmpty() ? null : queue.poll(); }
+        @Override public synchronized E peek() { return queue.isEmpty() ? null : queue.peek(); }
+        @Override public synchronized int size() { return queue.size(); }
+        @Override public synchronized boolean isEmpty() { return queue.isEmpty(); }
+        @Override public synchronized void forEach(Consumer<? super E> action) { queue.forEach(action); }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITEMS;
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %-20s %-12s %-14s %s%n", "Queue", "Producers/consumers", "Time (ms)", "Ops/s", "Result");
+        boolean passed = run("warm-up", ConcurrentOrderQueue::new, THREAD_PAIRS[THREAD_PAIRS.length - 1], items);
+        for (int pairs : THREAD_PAIRS) {
+            passed &= run("lock-free", ConcurrentOrderQueue::new, pairs, items);
+            passed &= run("synchronized", SynchronizedQueue::new, pairs, items);
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // One run; prints a result row, returns true if every check held
+    private static boolean run(String label, Supplier<IOrderQueue<Long>> factory, int pairs, int items)
+            throws InterruptedException {
+        IOrderQueue<Long> queue = factory.get();
+        int total = pairs * items;
+        AtomicInteger consumed = new AtomicInteger();
+        long[][] polled = new long[pairs][]; // Per consumer: producer << 32 | sequence, in poll order
+        int[] receivedCounts = new int[pairs];
+        AtomicInteger orderErrors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[2 * pairs];
+        for (int p = 0; p < pairs; p++) {
+            long producer = p;
+            threads[p] = new Thread(() -> {
+                awaitStart(start);
+                for (int sequence = 0; sequence < items; sequence++) {
+                    queue.offer(producer << 32 | sequence);
+                }
+            }, "queue-producer-" + p);
+        }
+        for (int c = 0; c < pairs; c++) {
+            int consumer = c;
+            polled[c] = new long[16];
+            threads[pairs + c] = new Thread(() -> {
+                int[] lastSequence = new int[pairs]; // Per producer, last sequence this consumer saw
+                Arrays.fill(lastSequence, -1);
+                long[] log = polled[consumer];
+                int count = 0;
+                awaitStart(start);
+                while (consumed.get() < total) {
+                    Long item = queue.poll();
+                    if (item == null) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    consumed.incrementAndGet();
+                    int producer = (int) (item >>> 32);
+                    int sequence = (int) (long) item;
+                    if (sequence <= lastSequence[producer]) {
+                        orderErrors.incrementAndGet();
+                    }
+                    lastSequence[producer] = sequence;
+                    if (count == log.length) {
+                        log = Arrays.copyOf(log, count * 2);
+                    }
+                    log[count++] = item;
+                }
+                polled[consumer] = log;
+                receivedCounts[consumer] = count;
+            }, "queue-consumer-" + c);
+        }
+        long startTime = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        // Exactly once: count how often each (producer, sequence) came out
+        byte[][] seen = new byte[pairs][items];
+        int duplicates = 0;
+        int foreign = 0;
+        for (int c = 0; c < pairs; c++) {
+            for (int i = 0; i < receivedCounts[c]; i++) {
+                long item = polled[c][i];
+                int producer = (int) (item >>> 32);
+                int sequence = (int) item;
+                if (producer >= pairs || sequence < 0 || sequence >= items) {
+                    foreign++;
+                } else if (seen[producer][sequence]++ != 0) {
+                    duplicates++;
+                }
+            }
+        }
+        int missing = 0;
+        for (byte[] producerSeen : seen) {
+            for (byte count : producerSeen) {
+                if (count == 0) {
+                    missing++;
+                }
+            }
+        }
+        boolean empty = queue.isEmpty() && queue.poll() == null && queue.peek() == null && queue.size() == 0;
+
+        boolean passed = duplicates == 0 && missing == 0 && foreign == 0 && orderErrors.get() == 0 && empty;
+        String result = passed ? "ok (" + total + " items)"
+                : "FAILED: " + missing + " missing, " + duplicates + " duplicated, " + foreign + " unknown, "
+                        + orderErrors.get() + " out of producer order" + (empty ? "" : ", queue not empty");
+        System.out.printf("%-14s %-20s %-12d %-14.0f %s%n", label, pairs + "/" + pairs, elapsedNanos / 1_000_000,
+                2.0 * total / (elapsedNanos / 1e9), result);
+        return passed;
+    }
+
+    private static void awaitStart(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
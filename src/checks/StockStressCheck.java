@@ -0,0 +1,169 @@
+package checks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import algorithms.SortAlgorithm.SortBy;
+import data_structures.IndexedInventoryList;
+import models.Book;
+import models.Order;
+import services.BookService;
+
+// Runnable concurrency check for BookService stock mutation. Every thread applies deltas to the
+// same small set of books (adjustStock up and down, multi-book reserveStock, some released again)
+// while paging through getBooks, so threads constantly race on the same books and stripes. Each
+// thread tallies the net change it made per book; at the end every book, the stock-sorted view,
+// the stock index and the scan columns must match the initial stock plus all tallies, so a single
+// lost update fails the check. Runs at 1, 2, 4 and 8 threads and reports throughput for each.
+// Usage: java checks.StockStressCheck [total operations per run]
+public class StockStressCheck {
+    private static final int[] THREAD_COUNTS = { 1, 2, 4, 8 };
+    private static final int DEFAULT_OPERATIONS = 400_000; // Split evenly between the threads of a run
+    private static final int BOOK_COUNT = 64; // Few books, so threads collide often
+    private static final int INITIAL_STOCK = 1_000;
+    private static final int PAGE_SIZE = 16;
+
+    public static void main(String[] args) throws InterruptedException {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_OPERATIONS;
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %-12s %-14s %s%n", "Threads", "Time (ms)", "Ops/s", "Result");
+        boolean passed = run("warm-up", THREAD_COUNTS[THREAD_COUNTS.length - 1], operations); // JIT warm-up
+        for (int threads : THREAD_COUNTS) {
+            passed &= run(String.valueOf(threads), threads, operations);
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    // One run on a fresh catalog; prints a result row, returns true if every total matched
+    private static boolean run(String label, int threadCount, int operations) throws InterruptedException {
+        BookService books = new BookService(new IndexedInventoryList<>(Book::getBookID, BOOK_COUNT));
+        Book[] catalog = new Book[BOOK_COUNT];
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            catalog[i] = new Book("Stress Book " + i, "Author " + (i % 7), 1 + i % 50, INITIAL_STOCK);
+        }
+        books.addBooks(catalog);
+
+        long[][] netChanges = new long[threadCount][BOOK_COUNT]; // Per thread, per book index
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            long[] net = netChanges[t];
+            int share = operations / threadCount;
+            threads[t] = new Thread(() -> {
+                awaitStart(start);
+                for (int op = 0; op < share; op++) {
+                    step(books, catalog, net, errors);
+                }
+            }, "stock-stress-" + t);
+        }
+        long startTime = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startTime;
+
+        long expectedTotal = 0;
+        long expectedCents = 0;
+        int wrongBooks = 0;
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            long expected = INITIAL_STOCK;
+            for (long[] net : netChanges) {
+                expected += net[i];
+            }
+            if (books.findBookById(catalog[i].getBookID()).getQuantity() != expected) {
+                wrongBooks++;
+            }
+            expectedTotal += expected;
+            expectedCents += Math.round(catalog[i].getPrice() * 100) * expected;
+        }
+        long viewTotal = 0;
+        int previous = -1;
+        boolean sorted = true;
+        for (Book book : books.getBooks(SortBy.STOCK, 0, BOOK_COUNT)) {
+            viewTotal += book.getQuantity();
+            sorted &= book.getQuantity() >= previous;
+            previous = book.getQuantity();
+        }
+        long indexTotal = 0;
+        for (Book book : books.findBooksByStockRange(0, Integer.MAX_VALUE)) {
+            indexTotal += book.getQuantity();
+        }
+        long columnCents = Math.round(books.getStockValue() * 100);
+
+        boolean passed = errors.get() == 0 && wrongBooks == 0 && sorted && viewTotal == expectedTotal
+                && indexTotal == expectedTotal && columnCents == expectedCents;
+        String result = passed ? "ok (total stock " + expectedTotal + ")"
+                : "FAILED: " + wrongBooks + " books off, " + errors.get() + " errors, sorted view " + viewTotal
+                        + ", stock index " + indexTotal + ", expected " + expectedTotal
+                        + (columnCents == expectedCents ? "" : ", column stock value off")
+                        + (sorted ? "" : ", stock view out of order");
+        int done = operations / threadCount * threadCount;
+        System.out.printf("%-8s %-12d %-14.0f %s%n", label, elapsedNanos / 1_000_000,
+                done / (elapsedNanos / 1e9), result);
+        return passed;
+    }
+
+    // One random operation on shared books, recording its net stock change in net
+    private static void step(BookService books, Book[] catalog, long[] net, AtomicInteger errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(BOOK_COUNT);
+        int quantity = 1 + random.nextInt(5);
+        switch (random.nextInt(10)) {
+            case 0: case 1: case 2: case 3:
+                if (books.adjustStock(catalog[index].getBookID(), quantity)) {
+                    net[index] += quantity;
+                } else {
+                    errors.incrementAndGet();
+                }
+                break;
+            case 4: case 5:
+                if (books.adjustStock(catalog[index].getBookID(), -quantity)) {
+                    net[index] -= quantity;
+                }
+                break;
+            case 6: case 7: {
+                int other = (index + 1 + random.nextInt(BOOK_COUNT - 1)) % BOOK_COUNT;
+                int otherQuantity = 1 + random.nextInt(3);
+                Order order = new Order("Stress", "Check");
+                order.addBook(catalog[index], quantity);
+                order.addBook(catalog[other], otherQuantity);
+                if (books.reserveStock(order)) {
+                    if (random.nextBoolean()) {
+                        books.releaseStock(order);
+                    } else {
+                        net[index] -= quantity;
+                        net[other] -= otherQuantity;
+                    }
+                }
+                break;
+            }
+            default: {
+                int offset = random.nextInt(BOOK_COUNT);
+                Book[] page = books.getBooks(SortBy.STOCK, offset, PAGE_SIZE);
+                if (page.length != Math.min(PAGE_SIZE, BOOK_COUNT - offset)) {
+                    errors.incrementAndGet();
+                }
+                for (Book book : page) {
+                    if (book == null || book.getQuantity() < 0) {
+                        errors.incrementAndGet();
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    private static void awaitStart(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import models.Book;
+import services.BookService;
+
+// Streaming catalog importer for delimited files with columns: title, author, price, quantity.
+// Rows are read one line at a time (the file is never loaded whole) and added to the catalog in
+// bulk inserts of BATCH_SIZE books as they are parsed, so memory stays bounded by one batch however
+// large the file is. Batches already added stay added if a later one fails. CSV fields may be quoted ("a, b" with "" as an escaped quote); TSV fields are not.
+// Malformed rows are counted and skipped. An optional header row is detected and ignored.
+public class CatalogImporter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int COLUMNS = 4;
+    private static final int BATCH_SIZE = 4096; // Books per bulk insert (one logged, synced batch)
+
+    // Outcome of one import
+    public static class ImportResult {
+        private final long rows;
+        private final int imported;
+        private final long malformed;
+        private final long elapsedNanos;
+
+        private ImportResult(long rows, int imported, long malformed, long elapsedNanos) {
+            this.rows = rows;
+            this.imported = imported;
+            this.malformed = malformed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRows() { return rows; }
+        public int getImported() { return imported; }
+        public long getMalformed() { return malformed; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        // Get rows read per second, including malformed rows
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows read, %d imported, %d malformed in %.1f ms (%.0f rows/s)",
+                    rows, imported, malformed, elapsedNanos / 1_000_000.0, getRowsPerSecond());
+        }
+    }
+
+    private final char delimiter;
+    private final boolean quoted; // Whether fields may be wrapped in double quotes
+
+    // Initialize with field delimiter (',' allows quoted fields, anything else splits plainly)
+    public CatalogImporter(char delimiter) {
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid delimiter");
+        }
+        this.delimiter = delimiter;
+        this.quoted = delimiter == ',';
+    }
+
+    // Create importer for a file: tab-delimited for .tsv, comma-delimited otherwise
+    public static CatalogImporter forFile(Path path) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        return new CatalogImporter(path.toString().toLowerCase().endsWith(".tsv") ? '\t' : ',');
+    }
+
+    // Import file (UTF-8) into the catalog
+    public ImportResult importInto(Path path, BookService bookService) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            return importInto(reader, bookService);
+        }
+    }
+
+    // Import rows from reader into the catalog
+    public ImportResult importInto(Reader reader, BookService bookService) throws IOException {
+        if (reader == null || bookService == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+
+        long start = System.nanoTime();
+        BufferedReader lines = new BufferedReader(reader, BUFFER_SIZE);
+        String[] fields = new String[COLUMNS];
+        Book[] batch = new Book[BATCH_SIZE];
+        int count = 0;
+        int imported = 0;
+        long rows = 0;
+        long malformed = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            rows++;
+            Book book = parseRow(line, fields);
+            if (book == null) {
+                if (rows == 1 && isHeader(fields)) {
+                    rows--;
+                } else {
+                    malformed++;
+                }
+                continue;
+            }
+            batch[count++] = book;
+            if (count == BATCH_SIZE) {
+                int added = bookService.addBooks(batch); // Copies what it keeps, so the batch is reused
+                imported += added;
+                boolean rejected = added < count;
+                count = 0;
+                if (rejected) {
+                    break; // Catalog failed part of the batch (error already reported); stop reading
+                }
+            }
+        }
+        if (count > 0) {
+            imported += bookService.addBooks(Arrays.copyOf(batch, count));
+        }
+        return new ImportResult(rows, imported, malformed, System.nanoTime() - start);
+    }
+
+    // Parse one row into a book, or null if malformed
+    private Book parseRow(String line, String[] fields) {
+        Arrays.fill(fields, null);
+        if (split(line, fields) != COLUMNS) {
+            return null;
+        }
+        try {
+            double price = Double.parseDouble(fields[2].trim());
+            int quantity = Integer.parseInt(fields[3].trim());
+            if (Double.isNaN(price) || Double.isInfinite(price)) {
+                return null;
+            }
+            return new Book(fields[0].trim(), fields[1].trim(), price, quantity);
+        } catch (IllegalArgumentException e) {
+            return null; // Bad number or rejected by Book validation
+        }
+    }
+
+    // Split line into fields, returns field count or -1 on bad quoting (fills at most fields.length)
+    private int split(String line, String[] fields) {
+        int count = 0;
+        int i = 0;
+        int length = line.length();
+        while (true) {
+            String field;
+            if (quoted && i < length && line.charAt(i) == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        return -1; // Unterminated quote
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            value.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(c);
+                    }
+                }
+                if (i < length && line.charAt(i) != delimiter) {
+                    return -1; // Text after closing quote
+                }
+                field = value.toString();
+            } else {
+                int end = line.indexOf(delimiter, i);
+                if (end < 0) {
+                    end = length;
+                }
+                field = line.substring(i, end);
+                i = end;
+            }
+            if (count < fields.length) {
+                fields[count] = field;
+            }
+            count++;
+            if (i >= length) {
+                return count;
+            }
+            i++; // Skip delimiter
+        }
+    }
+
+    // Check whether a rejected first row is a column header
+    private static boolean isHeader(String[] fields) {
+        return fields[0] != null && fields[0].trim().equalsIgnoreCase("title");
+    }
+}
@@ -0,0 +1,237 @@
+package data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import interfaces.IBookSource;
+import models.Book;
+
+// Read-only binary catalog file, memory-mapped and decoded lazily.
+// Layout: header (magic, version, count, heap offset), then one fixed-width record per book sorted
+// by ID (ID, quantity, price, title offset/length, author offset/length), then a heap of UTF-8
+// strings (authors stored once). Opening maps the file and checks the header only; a book is built
+// the first time it is looked up, and the same instance is returned after that, so changes made to
+// it (e.g. stock) are kept. Thread-safe.
+public class CatalogSnapshot implements IBookSource {
+    private static final int MAGIC = 0x42434154; // "BCAT"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+    private static final int RECORD_SIZE = 6 * Integer.BYTES + Double.BYTES;
+
+    // Record field offsets
+    private static final int ID = 0;
+    private static final int QUANTITY = 4;
+    private static final int PRICE = 8;
+    private static final int TITLE_OFFSET = 16;
+    private static final int TITLE_LENGTH = 20;
+    private static final int AUTHOR_OFFSET = 24;
+    private static final int AUTHOR_LENGTH = 28;
+
+    private final ByteBuffer buffer; // Mapped file, read only with absolute gets
+    private final int count;
+    private final int heapOffset;
+    private final AtomicReferenceArray<Book> decoded; // Books built so far, by record index
+
+    private CatalogSnapshot(ByteBuffer buffer, int count, int heapOffset) {
+        this.buffer = buffer;
+        this.count = count;
+        this.heapOffset = heapOffset;
+        this.decoded = new AtomicReferenceArray<>(count);
+    }
+
+    // Write books to path atomically (temp file, fsync, rename); books must have distinct IDs
+    public static void write(Path path, Book[] books) throws IOException {
+        if (path == null || books == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        Book[] sorted = books.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(Book::getBookID));
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i] == null) {
+                throw new IllegalArgumentException("Books cannot contain null");
+            }
+            if (i > 0 && sorted[i].getBookID() == sorted[i - 1].getBookID()) {
+                throw new IllegalArgumentException("Duplicate book ID " + sorted[i].getBookID());
+            }
+        }
+
+        // Lay out the string heap first so records can point into it
+        byte[][] titles = new byte[sorted.length][];
+        int[] authorOffsets = new int[sorted.length];
+        int[] authorLengths = new int[sorted.length];
+        Map<String, Integer> authorIndex = new HashMap<>();
+        byte[][] authors = new byte[16][];
+        int[] authorStarts = new int[16];
+        int authorCount = 0;
+        long heapSize = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            titles[i] = sorted[i].getTitle().getBytes(StandardCharsets.UTF_8);
+            heapSize += titles[i].length;
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            Integer index = authorIndex.get(sorted[i].getAuthor());
+            if (index == null) {
+                index = authorCount;
+                if (authorCount == authors.length) {
+                    authors = Arrays.copyOf(authors, authorCount * 2);
+                    authorStarts = Arrays.copyOf(authorStarts, authorCount * 2);
+                }
+                authors[authorCount] = sorted[i].getAuthor().getBytes(StandardCharsets.UTF_8);
+                authorStarts[authorCount++] = (int) Math.min(heapSize, Integer.MAX_VALUE);
+                authorIndex.put(sorted[i].getAuthor(), index);
+                heapSize += authors[index].length;
+            }
+            authorOffsets[i] = authorStarts[index];
+            authorLengths[i] = authors[index].length;
+        }
+        long heapStart = HEADER_SIZE + (long) sorted.length * RECORD_SIZE;
+        if (heapStart + heapSize > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for one snapshot file");
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sorted.length);
+            out.writeInt((int) heapStart);
+            int titleOffset = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                Book book = sorted[i];
+                out.writeInt(book.getBookID());
+                out.writeInt(book.getQuantity());
+                out.writeDouble(book.getPrice());
+                out.writeInt(titleOffset);
+                out.writeInt(titles[i].length);
+                out.writeInt(authorOffsets[i]);
+                out.writeInt(authorLengths[i]);
+                titleOffset += titles[i].length;
+            }
+            for (byte[] title : titles) {
+                out.write(title);
+            }
+            for (int i = 0; i < authorCount; i++) {
+                out.write(authors[i]);
+            }
+            out.flush();
+            file.getFD().sync(); // Durable before it replaces the old file
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Map snapshot file; books are decoded on first access
+    public static CatalogSnapshot open(Path path) throws IOException {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog snapshot file");
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = buffer.getInt(8);
+            int heapOffset = buffer.getInt(12);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || count < 0
+                    || heapOffset != HEADER_SIZE + (long) count * RECORD_SIZE || heapOffset > size) {
+                throw new IOException("Not a catalog snapshot file");
+            }
+            CatalogSnapshot snapshot = new CatalogSnapshot(buffer, count, heapOffset);
+            if (count > 0) {
+                Book.reserveId(snapshot.getBookId(count - 1)); // New books must not reuse snapshot IDs
+            }
+            return snapshot;
+        }
+    }
+
+    // Get number of books
+    @Override
+    public int size() {
+        return count;
+    }
+
+    // Get ID of the book at index (IDs ascend with index), without decoding it
+    public int getBookId(int index) {
+        checkIndex(index);
+        return buffer.getInt(HEADER_SIZE + index * RECORD_SIZE + ID);
+    }
+
+    // Get book at index, decoding it on first access
+    public Book getBook(int index) {
+        checkIndex(index);
+        Book book = decoded.get(index);
+        if (book == null) {
+            Book built = decode(index);
+            // Another thread may have decoded it first; everyone keeps the winner
+            book = decoded.compareAndSet(index, null, built) ? built : decoded.get(index);
+        }
+        return book;
+    }
+
+    // Find book by ID with binary search over the mapped records, or null if absent
+    @Override
+    public Book findBookById(int bookId) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = buffer.getInt(HEADER_SIZE + mid * RECORD_SIZE + ID);
+            if (id < bookId) {
+                low = mid + 1;
+            } else if (id > bookId) {
+                high = mid - 1;
+            } else {
+                return getBook(mid);
+            }
+        }
+        return null;
+    }
+
+    // Decode every book, in ID order
+    @Override
+    public Book[] toArray() {
+        Book[] books = new Book[count];
+        for (int i = 0; i < count; i++) {
+            books[i] = getBook(i);
+        }
+        return books;
+    }
+
+    private Book decode(int index) {
+        int record = HEADER_SIZE + index * RECORD_SIZE;
+        String title = readString(buffer.getInt(record + TITLE_OFFSET), buffer.getInt(record + TITLE_LENGTH));
+        String author = readString(buffer.getInt(record + AUTHOR_OFFSET), buffer.getInt(record + AUTHOR_LENGTH));
+        return new Book(buffer.getInt(record + ID), title, author, buffer.getDouble(record + PRICE),
+                buffer.getInt(record + QUANTITY));
+    }
+
+    private String readString(int offset, int length) {
+        if (offset < 0 || length < 0 || (long) heapOffset + offset + length > buffer.limit()) {
+            throw new IllegalStateException("Corrupt catalog snapshot string at heap offset " + offset);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(heapOffset + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+        }
+    }
+}
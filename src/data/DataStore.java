@@ -0,0 +1,587 @@
+package data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import algorithms.SortAlgorithm.SortBy;
+import data_structures.IndexedInventoryList;
+import data_structures.InventoryItem;
+import data_structures.IntHashMap;
+import data_structures.OrderQueue;
+import data_structures.PriorityOrderQueue;
+import interfaces.IChangeLog;
+import models.Book;
+import models.Order;
+import models.enums.OrderPriority;
+import models.enums.OrderStatus;
+import services.BookService;
+import services.OrderService;
+
+// Durable storage for the catalog and orders: a snapshot plus a write-ahead log of every change
+// since it. On open, state is rebuilt from the snapshot and the log tail, then compacted into a
+// new snapshot if the log had any records. Replay is idempotent: records at or below the
+// snapshot's LSN are skipped. Stock is logged as deltas, which replay sums per book and applies
+// once at the end, so concurrent changes logged in a different order than they were applied
+// still give the same result.
+// Services log each change before (or together with) applying it, and in WAIT mode then call
+// awaitDurable after releasing their locks, so fsyncs never stall other threads' changes.
+// The catalog part of a snapshot is a memory-mapped CatalogSnapshot named after its LSN; it is
+// attached to the book service without decoding it, so lookups work as soon as open returns.
+public class DataStore implements IChangeLog, AutoCloseable {
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String LOG_FILE = "wal.log";
+    private static final int SNAPSHOT_MAGIC = 0x42534E50; // "BSNP"
+    private static final int SNAPSHOT_VERSION = 2; // 1: catalog books stored inline
+    private static final String CATALOG_PREFIX = "catalog-";
+    private static final String CATALOG_SUFFIX = ".snap";
+
+    // Log record types
+    private static final byte BOOK_ADDED = 1;
+    private static final byte STOCK_CHANGED = 2;
+    private static final byte BOOK_UPDATED = 3;
+    private static final byte BOOK_REMOVED = 4;
+    private static final byte ORDER_SUBMITTED = 5;
+    private static final byte ORDER_STATUS = 6;
+    private static final byte ORDER_COMPLETED = 7;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final OrderPriority[] PRIORITIES = OrderPriority.values();
+    private static final int PRIORITY_SHIFT = 4; // Priority goes in the status byte's high bits (0: STANDARD)
+
+    // Order being recovered: whether it ended in the completed queue and its queue position
+    private static class RecoveredOrder {
+        private final Order order;
+        private boolean completed;
+        private long sequence; // LSN of the last move to a queue tail (negative for snapshot order)
+
+        private RecoveredOrder(Order order, boolean completed, long sequence) {
+            this.order = order;
+            this.completed = completed;
+            this.sequence = sequence;
+        }
+    }
+
+    private final Path directory;
+    private final WriteAheadLog log;
+    private final BookService bookService;
+    private final OrderService orderService;
+    private final IntHashMap<Book> books; // Every book seen outside the catalog file (orders may reference removed books)
+    private final IntHashMap<Book> catalog; // Books in the catalog, other than those in the catalog file
+    private final IntHashMap<Book> removed; // Catalog file books removed by the log tail
+    private final IntHashMap<RecoveredOrder> orders;
+    private final IntHashMap<StockDelta> stockDeltas; // Book ID -> stock change summed over the log tail
+    private final ThreadLocal<RecordBuffer> recordBuffer;
+    private final WriteAheadLog.SyncMode syncMode;
+    private CatalogSnapshot catalogFile; // Catalog of the snapshot being recovered (null: none)
+    private long checkpointLsn; // LSN covered by the current snapshot
+    private boolean empty; // Nothing was recovered
+
+    // Net stock change of one book during replay
+    private static class StockDelta {
+        private final Book book;
+        private long delta;
+
+        private StockDelta(Book book) {
+            this.book = book;
+        }
+    }
+
+    private DataStore(Path directory, WriteAheadLog.SyncMode syncMode, long intervalMillis) throws IOException {
+        this.directory = directory;
+        this.syncMode = syncMode;
+        this.books = new IntHashMap<>();
+        this.catalog = new IntHashMap<>();
+        this.removed = new IntHashMap<>();
+        this.orders = new IntHashMap<>();
+        this.stockDeltas = new IntHashMap<>();
+        this.recordBuffer = ThreadLocal.withInitial(RecordBuffer::new);
+        Files.createDirectories(directory);
+        this.log = new WriteAheadLog(directory.resolve(LOG_FILE), syncMode, intervalMillis);
+        try {
+            this.checkpointLsn = readSnapshot();
+            log.replay(checkpointLsn, this::apply);
+            applyStockDeltas();
+            this.empty = catalog.isEmpty() && orders.isEmpty() && (catalogFile == null || catalogFile.size() == 0);
+            int catalogSize = catalog.size() + (catalogFile == null ? 0 : catalogFile.size());
+            this.bookService = new BookService(new IndexedInventoryList<>(Book::getBookID, catalogSize));
+            this.orderService = new OrderService(bookService,
+                    PriorityOrderQueue.forOrders(PriorityOrderQueue.DEFAULT_AGING_WINDOW), new OrderQueue<>());
+            install();
+            books.clear();
+            catalog.clear();
+            removed.clear();
+            orders.clear();
+            stockDeltas.clear();
+            catalogFile = null; // Now owned by the book service
+            bookService.setChangeLog(this);
+            orderService.setChangeLog(this);
+            if (log.getLastLsn() != checkpointLsn) {
+                checkpoint();
+            }
+            deleteStaleCatalogs();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    // Open store in directory, recovering any saved state
+    public static DataStore open(Path directory, WriteAheadLog.SyncMode syncMode, long intervalMillis)
+            throws IOException {
+        if (directory == null || syncMode == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        return new DataStore(directory, syncMode, intervalMillis);
+    }
+
+    public BookService getBookService() { return bookService; }
+    public OrderService getOrderService() { return orderService; }
+
+    // Check whether the store had no saved state when opened
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    // Write a snapshot of the current state and discard the log it covers (indexes any catalog
+    // still attached lazily). Must run while no mutations are in progress (e.g. at startup or shutdown).
+    public synchronized void checkpoint() throws IOException {
+        log.sync();
+        long lsn = log.getLastLsn();
+        Book[] catalogBooks = bookService.getAllBooks(SortBy.ID);
+        CatalogSnapshot.write(directory.resolve(catalogFileName(lsn)), catalogBooks);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+            writeSnapshot(out, lsn, catalogBooks);
+            out.flush();
+            file.getFD().sync(); // Durable before it replaces the old snapshot
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        log.reset(lsn);
+        checkpointLsn = lsn;
+        deleteStaleCatalogs();
+    }
+
+    // Checkpoint if anything changed since the last one, and close the log
+    @Override
+    public void close() throws IOException {
+        try {
+            if (log.getLastLsn() != checkpointLsn) {
+                checkpoint();
+            }
+        } finally {
+            log.close();
+        }
+    }
+
+    @Override
+    public void bookAdded(Book book) {
+        append(out -> {
+            out.writeByte(BOOK_ADDED);
+            writeBook(out, book);
+        });
+    }
+
+    @Override
+    public void stockChanged(int bookId, int delta) {
+        append(out -> {
+            out.writeByte(STOCK_CHANGED);
+            out.writeInt(bookId);
+            out.writeInt(delta);
+        });
+    }
+
+    @Override
+    public void bookUpdated(int bookId, String title, String author, double price) {
+        append(out -> {
+            out.writeByte(BOOK_UPDATED);
+            out.writeInt(bookId);
+            out.writeUTF(title);
+            out.writeUTF(author);
+            out.writeDouble(price);
+        });
+    }
+
+    @Override
+    public void bookRemoved(int bookId) {
+        append(out -> {
+            out.writeByte(BOOK_REMOVED);
+            out.writeInt(bookId);
+        });
+    }
+
+    @Override
+    public void orderSubmitted(Order order) {
+        append(out -> {
+            out.writeByte(ORDER_SUBMITTED);
+            writeOrder(out, order);
+        });
+    }
+
+    @Override
+    public void orderStatusChanged(int orderId, OrderStatus status, boolean requeued) {
+        append(out -> {
+            out.writeByte(ORDER_STATUS);
+            out.writeInt(orderId);
+            out.writeByte(status.ordinal());
+            out.writeBoolean(requeued);
+        });
+    }
+
+    @Override
+    public void orderCompleted(int orderId) {
+        append(out -> {
+            out.writeByte(ORDER_COMPLETED);
+            out.writeInt(orderId);
+        });
+    }
+
+    // In WAIT mode, block until the last record this thread appended is fsynced
+    @Override
+    public void awaitDurable() {
+        if (syncMode != WriteAheadLog.SyncMode.WAIT) {
+            return;
+        }
+        try {
+            log.sync(recordBuffer.get().lsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing to log", e);
+        }
+    }
+
+    // Record encoder
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    // Reusable per-thread encoding buffer
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream out = new DataOutputStream(this);
+        private long lsn; // LSN of the last record this thread appended
+
+        private RecordBuffer() {
+            super(256);
+        }
+
+        // Append the encoded record without copying it out first
+        private void appendTo(WriteAheadLog log) throws IOException {
+            lsn = log.append(buf, 0, count);
+        }
+    }
+
+    // Encode and append one record
+    private void append(RecordWriter writer) {
+        RecordBuffer record = recordBuffer.get();
+        record.reset();
+        try {
+            writer.write(record.out);
+            record.appendTo(log);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing to log", e);
+        }
+    }
+
+    // Apply one log record to the recovery state
+    private void apply(byte[] record, long lsn) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            byte type = in.readByte();
+            switch (type) {
+                case BOOK_ADDED: {
+                    Book book = readBook(in);
+                    if (findBook(book.getBookID()) == null) {
+                        books.put(book.getBookID(), book);
+                        catalog.put(book.getBookID(), book);
+                    }
+                    break;
+                }
+                case STOCK_CHANGED: {
+                    Book book = findBook(in.readInt());
+                    int delta = in.readInt();
+                    if (book != null) {
+                        addStockDelta(book, delta);
+                    }
+                    break;
+                }
+                case BOOK_UPDATED: {
+                    Book book = findBook(in.readInt());
+                    String title = in.readUTF();
+                    String author = in.readUTF();
+                    double price = in.readDouble();
+                    if (book != null) {
+                        book.setTitle(title);
+                        book.setAuthor(author);
+                        book.setPrice(price);
+                    }
+                    break;
+                }
+                case BOOK_REMOVED: {
+                    int bookId = in.readInt();
+                    if (catalog.remove(bookId) == null && catalogFile != null) {
+                        Book book = catalogFile.findBookById(bookId);
+                        if (book != null) {
+                            removed.put(bookId, book);
+                        }
+                    }
+                    break;
+                }
+                case ORDER_SUBMITTED: {
+                    Order order = readOrder(in);
+                    if (!orders.containsKey(order.getOrderId())) {
+                        if (order.getStatus() == OrderStatus.CONFIRMED) {
+                            // The reservation itself is not logged separately
+                            for (InventoryItem<Book> item : order.getBooks().getEntries()) {
+                                addStockDelta(item.getBook(), -item.getQuantity());
+                            }
+                        }
+                        orders.put(order.getOrderId(), new RecoveredOrder(order,
+                                order.getStatus() == OrderStatus.CANCELLED, lsn));
+                    }
+                    break;
+                }
+                case ORDER_STATUS: {
+                    RecoveredOrder recovered = orders.get(in.readInt());
+                    OrderStatus status = STATUSES[in.readByte()];
+                    boolean requeued = in.readBoolean();
+                    if (recovered != null) {
+                        recovered.order.setStatus(status);
+                        if (requeued) {
+                            recovered.completed = false;
+                            recovered.sequence = lsn;
+                        }
+                    }
+                    break;
+                }
+                case ORDER_COMPLETED: {
+                    RecoveredOrder recovered = orders.get(in.readInt());
+                    if (recovered != null) {
+                        recovered.completed = true;
+                        recovered.sequence = lsn;
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown log record type " + type + " at LSN " + lsn);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error replaying log", e);
+        }
+    }
+
+    // Add to a book's net stock change during replay
+    private void addStockDelta(Book book, int delta) {
+        StockDelta pending = stockDeltas.get(book.getBookID());
+        if (pending == null) {
+            pending = new StockDelta(book);
+            stockDeltas.put(book.getBookID(), pending);
+        }
+        pending.delta += delta;
+    }
+
+    // Apply the summed stock changes of the log tail. Services never log a change that takes stock
+    // below zero, so a total outside the int range means a damaged log: it is clamped and reported
+    // rather than refusing to recover everything else.
+    private void applyStockDeltas() {
+        stockDeltas.forEachValue(pending -> {
+            long quantity = pending.book.getQuantity() + pending.delta;
+            long clamped = Math.max(0, Math.min(Integer.MAX_VALUE, quantity));
+            if (clamped != quantity) {
+                System.out.println("Error recovering stock of book #" + pending.book.getBookID() + ": log gives "
+                        + quantity + ", set to " + clamped);
+            }
+            pending.book.setQuantity((int) clamped);
+        });
+    }
+
+    // Load the recovered books and orders into the services (queues in their original order)
+    private void install() {
+        Book[] catalogBooks = new Book[catalog.size()];
+        int[] count = {0};
+        catalog.forEachValue(book -> catalogBooks[count[0]++] = book);
+        Arrays.sort(catalogBooks, Comparator.comparingInt(Book::getBookID));
+        bookService.addBooks(catalogBooks);
+        if (catalogFile != null) {
+            bookService.attachSource(catalogFile);
+            int[] removedIds = new int[removed.size()];
+            count[0] = 0;
+            removed.forEachValue(book -> removedIds[count[0]++] = book.getBookID());
+            for (int bookId : removedIds) {
+                bookService.removeBook(bookId); // Rare; indexes the catalog file first
+            }
+        }
+
+        RecoveredOrder[] recovered = new RecoveredOrder[orders.size()];
+        count[0] = 0;
+        orders.forEachValue(order -> recovered[count[0]++] = order);
+        // Active queue first, each queue in the order orders reached its tail
+        Arrays.sort(recovered, Comparator.<RecoveredOrder>comparingInt(order -> order.completed ? 1 : 0)
+                .thenComparingLong(order -> order.sequence));
+        for (RecoveredOrder order : recovered) {
+            orderService.restoreOrder(order.order, order.completed);
+        }
+    }
+
+    // Read snapshot into the recovery state, returns its LSN (0 if none)
+    private long readSnapshot() throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Unsupported snapshot file");
+            }
+            int version = in.readInt();
+            if (version != 1 && version != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+            long lsn = in.readLong();
+            if (version >= 2) {
+                catalogFile = CatalogSnapshot.open(directory.resolve(catalogFileName(lsn)));
+            }
+            int bookCount = in.readInt();
+            for (int i = 0; i < bookCount; i++) {
+                Book book = readBook(in);
+                books.put(book.getBookID(), book);
+                if (version == 1 && in.readBoolean()) {
+                    catalog.put(book.getBookID(), book);
+                }
+            }
+            int orderCount = in.readInt();
+            for (int i = 0; i < orderCount; i++) {
+                Order order = readOrder(in);
+                boolean completed = in.readBoolean();
+                orders.put(order.getOrderId(), new RecoveredOrder(order, completed, i - (long) orderCount));
+            }
+            return lsn;
+        }
+    }
+
+    // Write current state: removed books still referenced by orders (the catalog itself goes to the
+    // catalog file), then active and completed orders in queue order
+    private void writeSnapshot(DataOutputStream out, long lsn, Book[] catalogBooks) throws IOException {
+        Order[][] queues = { orderService.getActiveOrders(), orderService.getCompletedOrders() };
+        IntHashMap<Book> written = new IntHashMap<>(catalogBooks.length);
+        for (Book book : catalogBooks) {
+            written.put(book.getBookID(), book);
+        }
+        Book[] retired = new Book[16];
+        int retiredCount = 0;
+        for (Order[] queue : queues) {
+            for (Order order : queue) {
+                for (InventoryItem<Book> item : order.getBooks().getEntries()) {
+                    Book book = item.getBook();
+                    if (!written.containsKey(book.getBookID())) {
+                        written.put(book.getBookID(), book);
+                        if (retiredCount == retired.length) {
+                            retired = Arrays.copyOf(retired, retiredCount * 2);
+                        }
+                        retired[retiredCount++] = book;
+                    }
+                }
+            }
+        }
+
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(lsn);
+        out.writeInt(retiredCount);
+        for (int i = 0; i < retiredCount; i++) {
+            writeBook(out, retired[i]);
+        }
+        out.writeInt(queues[0].length + queues[1].length);
+        for (int q = 0; q < queues.length; q++) {
+            for (Order order : queues[q]) {
+                writeOrder(out, order);
+                out.writeBoolean(q == 1);
+            }
+        }
+    }
+
+    // Find a book being recovered, decoding it from the catalog file if needed
+    private Book findBook(int bookId) {
+        Book book = books.get(bookId);
+        if (book == null && catalogFile != null) {
+            book = catalogFile.findBookById(bookId);
+        }
+        return book;
+    }
+
+    // Delete catalog files other than the current snapshot's (left by a crash mid-checkpoint)
+    private void deleteStaleCatalogs() {
+        String current = catalogFileName(checkpointLsn);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, CATALOG_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error deleting old catalog files: " + e.getMessage());
+        }
+    }
+
+    private static String catalogFileName(long lsn) {
+        return CATALOG_PREFIX + lsn + CATALOG_SUFFIX;
+    }
+
+    private static void writeBook(DataOutputStream out, Book book) throws IOException {
+        out.writeInt(book.getBookID());
+        out.writeUTF(book.getTitle());
+        out.writeUTF(book.getAuthor());
+        out.writeDouble(book.getPrice());
+        out.writeInt(book.getQuantity());
+    }
+
+    private static Book readBook(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        String title = in.readUTF();
+        String author = in.readUTF();
+        double price = in.readDouble();
+        int quantity = in.readInt();
+        return new Book(id, title, author, price, quantity);
+    }
+
+    private static void writeOrder(DataOutputStream out, Order order) throws IOException {
+        InventoryItem<Book>[] items = order.getBooks().getEntries();
+        out.writeInt(order.getOrderId());
+        out.writeUTF(order.getCustomerName());
+        out.writeUTF(order.getShippingAddress());
+        out.writeByte(order.getPriority().ordinal() << PRIORITY_SHIFT | order.getStatus().ordinal());
+        out.writeInt(items.length);
+        for (InventoryItem<Book> item : items) {
+            out.writeInt(item.getBook().getBookID());
+            out.writeInt(item.getQuantity());
+        }
+    }
+
+    // Read order; its books must already be known
+    private Order readOrder(DataInputStream in) throws IOException {
+        Order order = new Order(in.readInt(), in.readUTF(), in.readUTF());
+        int state = in.readUnsignedByte();
+        order.setStatus(STATUSES[state & ((1 << PRIORITY_SHIFT) - 1)]);
+        order.setPriority(PRIORITIES[state >>> PRIORITY_SHIFT]);
+        int itemCount = in.readInt();
+        for (int i = 0; i < itemCount; i++) {
+            Book book = findBook(in.readInt());
+            int quantity = in.readInt();
+            if (book == null) {
+                throw new IOException("Order #" + order.getOrderId() + " references an unknown book");
+            }
+            order.addBook(book, quantity);
+        }
+        return order;
+    }
+}
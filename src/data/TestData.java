@@ -4,7 +4,7 @@ import models.Book;
 import models.Order;
 import services.BookService;
 import services.OrderService;
-import data_structures.InventoryList;
+import data_structures.IndexedInventoryList;
 
 public class TestData {
 
@@ -13,9 +13,15 @@ public class TestData {
     public static OrderService orderService;
 
     public static void initializeData() {
-        InventoryList<Book> inventoryList = new InventoryList<>();
-        bookService = new BookService(inventoryList);
-        orderService = new OrderService(bookService);
+        IndexedInventoryList<Book> inventoryList = new IndexedInventoryList<>(Book::getBookID);
+        BookService books = new BookService(inventoryList);
+        initializeData(books, new OrderService(books));
+    }
+
+    // Fill existing (empty) services with the sample data
+    public static void initializeData(BookService books, OrderService orders) {
+        bookService = books;
+        orderService = orders;
 
         initializeBooks();
         initializeOrders();
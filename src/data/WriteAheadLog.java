@@ -0,0 +1,366 @@
+package data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+// Append-only record log with group commit.
+// File layout: header (magic, base LSN), then frames of [length][CRC32][payload]. Record LSNs are
+// implicit: base + 1, base + 2, ... Appenders copy records into a shared buffer; one flusher thread
+// writes the whole buffer and fsyncs it, so many appends share one fsync. A torn frame at the end
+// of the file (crash mid-write) is detected by length/CRC and truncated on open.
+public class WriteAheadLog implements AutoCloseable {
+    // When appends reach disk
+    public enum SyncMode {
+        NONE,  // Written to the OS every interval, never fsynced (survives process crash only)
+        BATCH, // Fsynced every interval; append returns at once (may lose the last interval on power loss)
+        WAIT   // Fsynced as soon as possible; sync(lsn) returns once the record is durable
+    }
+
+    private static final int MAGIC = 0x4257414C; // "BWAL"
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int FRAME_OVERHEAD = 2 * Integer.BYTES;
+    private static final int MAX_RECORD_SIZE = 16 << 20;
+    private static final int EARLY_FLUSH_BYTES = 1 << 20; // Flush before the interval once this much is pending
+
+    private final FileChannel channel;
+    private final SyncMode syncMode;
+    private final long intervalNanos;
+    private final ReentrantLock lock;
+    private final Condition flushNeeded;
+    private final Condition flushed;
+    private final Thread flusher;
+    private byte[] pending; // Frames appended but not yet written
+    private int pendingLength;
+    private byte[] spare; // Second buffer, swapped in while the flusher writes
+    private long appendedLsn; // Last LSN handed out
+    private long durableLsn; // Last LSN written (and fsynced unless NONE)
+    private boolean closed;
+    private IOException failure; // First write error; later appends fail
+
+    // Open or create log, truncating a torn tail; interval is the group-commit window for NONE/BATCH
+    public WriteAheadLog(Path path, SyncMode syncMode, long intervalMillis) throws IOException {
+        if (path == null || syncMode == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.syncMode = syncMode;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.lock = new ReentrantLock();
+        this.flushNeeded = lock.newCondition();
+        this.flushed = lock.newCondition();
+        this.pending = new byte[64 * 1024];
+        this.spare = new byte[64 * 1024];
+        try {
+            if (channel.size() == 0) {
+                writeHeader(0);
+            }
+            long[] end = scan(null, Long.MAX_VALUE);
+            channel.truncate(end[0]);
+            channel.position(end[0]);
+            this.appendedLsn = end[1];
+            this.durableLsn = end[1];
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.flusher = new Thread(this::flushLoop, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Replay records with LSN greater than afterLsn, in order; call before appending
+    public void replay(long afterLsn, ObjLongConsumer<byte[]> handler) throws IOException {
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        scan(handler, afterLsn);
+    }
+
+    // Append record, returns its LSN at once (see sync(lsn) to wait until it is durable)
+    public long append(byte[] record) throws IOException {
+        if (record == null) {
+            throw new IllegalArgumentException("Record cannot be null");
+        }
+        return append(record, 0, record.length);
+    }
+
+    // Append record stored in buffer[offset, offset + length); the buffer may be reused afterwards
+    public long append(byte[] buffer, int offset, int length) throws IOException {
+        if (buffer == null) {
+            throw new IllegalArgumentException("Record cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IllegalArgumentException("Invalid record range");
+        }
+        if (length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Record too large");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer, offset, length);
+        long lsn;
+        lock.lock();
+        try {
+            checkOpen();
+            boolean first = pendingLength == 0;
+            int required = pendingLength + FRAME_OVERHEAD + length;
+            if (required > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(required, pending.length * 2));
+            }
+            putInt(pending, pendingLength, length);
+            putInt(pending, pendingLength + Integer.BYTES, (int) crc.getValue());
+            System.arraycopy(buffer, offset, pending, pendingLength + FRAME_OVERHEAD, length);
+            pendingLength = required;
+            lsn = ++appendedLsn;
+            // The first record of a batch wakes the flusher to start its group-commit window
+            if (first || syncMode == SyncMode.WAIT || pendingLength >= EARLY_FLUSH_BYTES) {
+                flushNeeded.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return lsn;
+    }
+
+    // Wait until the record with lsn is written (and fsynced unless NONE), without holding any
+    // caller locks, so appends from other threads keep joining the same batch meanwhile
+    public void sync(long lsn) throws IOException {
+        lock.lock();
+        try {
+            if (durableLsn < lsn) {
+                checkOpen();
+                flushNeeded.signal();
+                awaitDurable(Math.min(lsn, appendedLsn));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Write and fsync everything appended so far
+    public void sync() throws IOException {
+        lock.lock();
+        try {
+            checkOpen();
+            if (durableLsn < appendedLsn) {
+                flushNeeded.signal();
+                awaitDurable(appendedLsn);
+            }
+            if (syncMode == SyncMode.NONE) {
+                channel.force(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Discard all records (after a snapshot covering them); numbering continues after baseLsn
+    public void reset(long baseLsn) throws IOException {
+        lock.lock();
+        try {
+            checkOpen();
+            if (baseLsn < appendedLsn) {
+                throw new IllegalArgumentException("Base LSN cannot go backwards");
+            }
+            flushNeeded.signal();
+            awaitDurable(appendedLsn);
+            channel.truncate(0);
+            writeHeader(baseLsn);
+            channel.force(true);
+            appendedLsn = baseLsn;
+            durableLsn = baseLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get LSN of the last appended record
+    public long getLastLsn() {
+        lock.lock();
+        try {
+            return appendedLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flush pending records, stop the flusher and close the file
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null) {
+                channel.force(true);
+            }
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Flusher: wait for work (or the interval), then write the whole pending buffer at once
+    private void flushLoop() {
+        lock.lock();
+        try {
+            while (true) {
+                while (pendingLength == 0 && !closed) {
+                    flushNeeded.await();
+                }
+                if (pendingLength == 0) {
+                    return; // Closed and drained
+                }
+                if (syncMode != SyncMode.WAIT && !closed && pendingLength < EARLY_FLUSH_BYTES) {
+                    flushNeeded.awaitNanos(intervalNanos); // Group-commit window
+                }
+                byte[] batch = pending;
+                int length = pendingLength;
+                long batchLsn = appendedLsn;
+                pending = spare;
+                pendingLength = 0;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch, 0, length);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    if (syncMode != SyncMode.NONE) {
+                        channel.force(false);
+                    }
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                spare = batch;
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                durableLsn = batchLsn;
+                flushed.signalAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Wait (holding the lock) until lsn has been flushed
+    private void awaitDurable(long lsn) throws IOException {
+        boolean interrupted = false;
+        while (durableLsn < lsn && failure == null) {
+            try {
+                flushed.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed", failure);
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Write-ahead log is closed");
+        }
+        if (failure != null) {
+            throw new IOException("Write-ahead log failed", failure);
+        }
+    }
+
+    // Read frames from the start, passing those after afterLsn to handler (if any).
+    // Returns {offset after the last valid frame, LSN of the last valid frame}.
+    private long[] scan(ObjLongConsumer<byte[]> handler, long afterLsn) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a write-ahead log file");
+        }
+        long lsn = header.getLong();
+        long offset = HEADER_SIZE;
+        long size = channel.size();
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_OVERHEAD);
+        CRC32 crc = new CRC32();
+        while (offset + FRAME_OVERHEAD <= size) {
+            frameHeader.clear();
+            readFully(frameHeader, offset);
+            frameHeader.flip();
+            int length = frameHeader.getInt();
+            int checksum = frameHeader.getInt();
+            if (length < 0 || length > MAX_RECORD_SIZE || offset + FRAME_OVERHEAD + length > size) {
+                break; // Torn or corrupt tail
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, offset + FRAME_OVERHEAD);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            lsn++;
+            offset += FRAME_OVERHEAD + length;
+            if (handler != null && lsn > afterLsn) {
+                handler.accept(payload.array(), lsn);
+            }
+        }
+        return new long[] { offset, lsn };
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return;
+            }
+        }
+    }
+
+    private void writeHeader(long baseLsn) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putLong(baseLsn).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.position(HEADER_SIZE);
+    }
+
+    private static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+}
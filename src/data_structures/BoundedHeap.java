@@ -0,0 +1,100 @@
+package data_structures;
+
+import java.util.Comparator;
+
+// Keeps the k smallest elements offered, using a max-heap of size k
+public class BoundedHeap<E> {
+    private final Object[] heap;
+    private final Comparator<? super E> comparator;
+    private int size;
+
+    public BoundedHeap(int capacity, Comparator<? super E> comparator) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Comparator cannot be null");
+        }
+        this.heap = new Object[capacity];
+        this.comparator = comparator;
+        this.size = 0;
+    }
+
+    // Offer element, keeping it only if it is among the k smallest so far
+    public void offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        if (size < heap.length) {
+            heap[size] = element;
+            siftUp(size++);
+        } else if (comparator.compare(element, elementAt(0)) < 0) {
+            heap[0] = element; // Replace current largest
+            siftDown(0);
+        }
+    }
+
+    // Get number of elements kept
+    public int size() {
+        return size;
+    }
+
+    // Remove all elements into array in ascending order (array must hold size() elements)
+    public E[] drainSorted(E[] array) {
+        if (array == null || array.length < size) {
+            throw new IllegalArgumentException("Array too small");
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            array[i] = elementAt(0);
+            heap[0] = heap[--size];
+            heap[size] = null;
+            siftDown(0);
+        }
+        return array;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(int index) {
+        return (E) heap[index];
+    }
+
+    private void siftUp(int index) {
+        Object element = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (comparator.compare(elementAt(parent), cast(element)) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    private void siftDown(int index) {
+        if (size == 0) {
+            return;
+        }
+        Object element = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && comparator.compare(elementAt(child + 1), elementAt(child)) > 0) {
+                child++;
+            }
+            if (comparator.compare(elementAt(child), cast(element)) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = element;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E cast(Object element) {
+        return (E) element;
+    }
+}
@@ -0,0 +1,40 @@
+package data_structures;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Lock-free buffer of changed elements waiting to be applied to an index. Any thread may add;
+// the index drains it under its own lock. Keeps a pending count, since
+// ConcurrentLinkedQueue.size() walks the whole queue.
+public class ChangeQueue<E> {
+    private final ConcurrentLinkedQueue<E> queue;
+    private final AtomicInteger pending; // Queued elements, updated just after each add and poll
+
+    public ChangeQueue() {
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+    }
+
+    // Queue element, returns the number of changes now pending
+    public int add(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        queue.offer(element);
+        return pending.incrementAndGet();
+    }
+
+    // Take the oldest pending change, or null if none
+    public E poll() {
+        E element = queue.poll();
+        if (element != null) {
+            pending.decrementAndGet();
+        }
+        return element;
+    }
+
+    // Get number of pending changes (may briefly lag behind concurrent adds and polls)
+    public int pending() {
+        return pending.get();
+    }
+}
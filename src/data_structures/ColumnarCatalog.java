@@ -0,0 +1,280 @@
+package data_structures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import models.Book;
+
+// Struct-of-arrays copy of the catalog for scan queries: one primitive column each for ID,
+// price (in cents), quantity and author (dictionary code), plus the row's Book for building
+// results. Filters run over the columns only, with a branch-free test per row.
+// Not thread-safe for structural changes; quantity may be refreshed concurrently with scans
+// (see setQuantity), so scans see each row's stock as of some recent moment.
+public class ColumnarCatalog {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CENTS = 1 << 30; // Keeps the range arithmetic in scans overflow-free
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private int[] ids;
+    private int[] priceCents;
+    private int[] quantities;
+    private int[] authorCodes;
+    private Book[] books;
+    private int size;
+    private final IntIntHashMap rows; // Book ID -> row
+    private final Map<String, Integer> authorDictionary; // Author -> code
+    private String[] authors; // Code -> author
+    private int[] authorRefs; // Code -> number of rows using it
+    private int authorCount; // Codes handed out so far
+    private int[] freeCodes; // Codes of authors no longer used, reused first
+    private int freeCount;
+
+    // Initialize empty catalog
+    public ColumnarCatalog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Initialize empty catalog sized for expected number of books
+    public ColumnarCatalog(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        int capacity = Math.max(expectedSize, 1);
+        this.ids = new int[capacity];
+        this.priceCents = new int[capacity];
+        this.quantities = new int[capacity];
+        this.authorCodes = new int[capacity];
+        this.books = new Book[capacity];
+        this.rows = new IntIntHashMap(expectedSize);
+        this.authorDictionary = new HashMap<>();
+        this.authors = new String[DEFAULT_CAPACITY];
+        this.authorRefs = new int[DEFAULT_CAPACITY];
+        this.freeCodes = new int[DEFAULT_CAPACITY];
+    }
+
+    // Convert price to the cents stored in the price column
+    public static int toCents(double price) {
+        if (!(price > 0)) {
+            return 0;
+        }
+        return (int) Math.min(Math.round(price * 100), MAX_CENTS);
+    }
+
+    // Add book as a new row, returns false if its ID is already present
+    public boolean add(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        if (rows.containsKey(book.getBookID())) {
+            return false;
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = book.getBookID();
+        priceCents[row] = toCents(book.getPrice());
+        quantities[row] = book.getQuantity();
+        authorCodes[row] = acquireAuthor(book.getAuthor());
+        books[row] = book;
+        rows.put(book.getBookID(), row);
+        return true;
+    }
+
+    // Remove book's row (the last row moves into its place), returns false if absent
+    public boolean remove(int bookId) {
+        int row = rows.getOrDefault(bookId, -1);
+        if (row < 0) {
+            return false;
+        }
+        releaseAuthor(authorCodes[row]);
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            priceCents[row] = priceCents[last];
+            quantities[row] = quantities[last];
+            authorCodes[row] = authorCodes[last];
+            books[row] = books[last];
+            rows.put(ids[row], row);
+        }
+        books[last] = null;
+        rows.remove(bookId);
+        return true;
+    }
+
+    // Refresh the quantity column from the book, returns the row written (-1 if absent).
+    // Safe to call concurrently with scans and other refreshes: after writing, the book is read
+    // again and the write repeated until they agree, so the last refresh of a row leaves its latest stock.
+    public int setQuantity(Book book) {
+        int row = rows.getOrDefault(book.getBookID(), -1);
+        if (row >= 0) {
+            copyQuantity(book, row);
+        }
+        return row;
+    }
+
+    // Refresh the quantity column of row from whichever book now occupies it (repairs a
+    // setQuantity that raced with a structural change)
+    public void refreshRow(int row) {
+        if (row >= 0 && row < size) {
+            copyQuantity(books[row], row);
+        }
+    }
+
+    private void copyQuantity(Book book, int row) {
+        int[] column = quantities;
+        int quantity = book.getQuantity();
+        while (true) {
+            INTS.setVolatile(column, row, quantity);
+            int current = book.getQuantity();
+            if (current == quantity) {
+                return;
+            }
+            quantity = current;
+        }
+    }
+
+    // Pre-size for expected number of rows
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > ids.length) {
+            int capacity = Math.max(expectedSize, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            authorCodes = Arrays.copyOf(authorCodes, capacity);
+            books = Arrays.copyOf(books, capacity);
+        }
+        rows.ensureCapacity(expectedSize);
+    }
+
+    // Get rows whose price is within [minCents, maxCents] and quantity at least minQuantity
+    public int[] filter(int minCents, int maxCents, int minQuantity) {
+        int[] result = new int[size];
+        int count = 0;
+        int low = clampCents(minCents);
+        int high = clampCents(maxCents);
+        int minimum = Math.max(minQuantity, 0);
+        int[] price = priceCents;
+        int[] stock = quantities;
+        for (int row = 0; row < size; row++) {
+            // Sign bit of any difference is set iff that bound fails; no branch on the data
+            int miss = ((high - price[row]) | (price[row] - low) | (stock[row] - minimum)) >>> 31;
+            result[count] = row;
+            count += miss ^ 1;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Count rows whose price is within [minCents, maxCents] and quantity at least minQuantity
+    public int count(int minCents, int maxCents, int minQuantity) {
+        int count = 0;
+        int low = clampCents(minCents);
+        int high = clampCents(maxCents);
+        int minimum = Math.max(minQuantity, 0);
+        int[] price = priceCents;
+        int[] stock = quantities;
+        for (int row = 0; row < size; row++) {
+            count += (((high - price[row]) | (price[row] - low) | (stock[row] - minimum)) >>> 31) ^ 1;
+        }
+        return count;
+    }
+
+    // Get rows by author (exact match), or an empty array if no book has that author
+    public int[] filterByAuthor(String author) {
+        Integer entry = authorDictionary.get(author);
+        if (entry == null) {
+            return new int[0];
+        }
+        int code = entry;
+        int[] result = new int[authorRefs[code]];
+        int count = 0;
+        int[] column = authorCodes;
+        for (int row = 0; row < size && count < result.length; row++) {
+            result[count] = row;
+            count += column[row] == code ? 1 : 0;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Get total stock value (price times quantity) in cents
+    public long stockValueCents() {
+        long total = 0;
+        int[] price = priceCents;
+        int[] stock = quantities;
+        for (int row = 0; row < size; row++) {
+            total += (long) price[row] * stock[row];
+        }
+        return total;
+    }
+
+    // Get total number of copies in stock
+    public long totalQuantity() {
+        long total = 0;
+        int[] stock = quantities;
+        for (int row = 0; row < size; row++) {
+            total += stock[row];
+        }
+        return total;
+    }
+
+    // Get book stored at row
+    public Book getBook(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+        return books[row];
+    }
+
+    // Get number of distinct authors
+    public int getAuthorCount() {
+        return authorDictionary.size();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Get dictionary code for author, adding it if new
+    private int acquireAuthor(String author) {
+        Integer code = authorDictionary.get(author);
+        if (code == null) {
+            code = nextFreeCode();
+            authors[code] = author;
+            authorDictionary.put(author, code);
+        }
+        authorRefs[code]++;
+        return code;
+    }
+
+    // Drop one use of an author code, freeing it when unused
+    private void releaseAuthor(int code) {
+        if (--authorRefs[code] == 0) {
+            authorDictionary.remove(authors[code]);
+            authors[code] = null;
+            if (freeCount == freeCodes.length) {
+                freeCodes = Arrays.copyOf(freeCodes, freeCount * 2);
+            }
+            freeCodes[freeCount++] = code;
+        }
+    }
+
+    // Reuse a freed code if there is one, otherwise hand out a new one
+    private int nextFreeCode() {
+        if (freeCount > 0) {
+            return freeCodes[--freeCount];
+        }
+        if (authorCount == authors.length) {
+            authors = Arrays.copyOf(authors, authorCount * 2);
+            authorRefs = Arrays.copyOf(authorRefs, authorCount * 2);
+        }
+        return authorCount++;
+    }
+
+    private static int clampCents(int cents) {
+        return Math.max(0, Math.min(cents, MAX_CENTS));
+    }
+}
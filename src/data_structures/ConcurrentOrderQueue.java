@@ -0,0 +1,147 @@
+package data_structures;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import interfaces.IOrderQueue;
+import models.Order;
+
+// Lock-free multi-producer multi-consumer FIFO queue (Michael-Scott linked queue).
+// Unlike the single-threaded queues, poll and peek return null when empty, because
+// emptiness can change between isEmpty() and the call. Order.next is not maintained;
+// use forEach to walk the queue.
+public class ConcurrentOrderQueue<E> implements IOrderQueue<E> {
+    // Queue node; element is cleared once the node becomes the dummy head
+    private static class Node<E> {
+        private volatile E element;
+        private volatile Node<E> next;
+
+        private Node(E element) {
+            this.element = element;
+        }
+    }
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentOrderQueue.class, "head", Node.class);
+            TAIL = lookup.findVarHandle(ConcurrentOrderQueue.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Node<E> head; // Dummy node; head.next holds the front element
+    private volatile Node<E> tail; // Last node, or lagging by at most one link
+    private final AtomicInteger size; // Updated after each link/unlink, so only approximate under contention
+
+    public ConcurrentOrderQueue() {
+        Node<E> dummy = new Node<>(null);
+        this.head = dummy;
+        this.tail = dummy;
+        this.size = new AtomicInteger();
+    }
+
+    // Add element to back of queue
+    @Override
+    public void offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        if (element instanceof Order) {
+            ((Order) element).next = null; // Drop any chain left by a previous queue
+        }
+
+        Node<E> newNode = new Node<>(element);
+        while (true) {
+            Node<E> last = tail;
+            Node<E> next = last.next;
+            if (last != tail) {
+                continue;
+            }
+            if (next == null) {
+                if (NEXT.compareAndSet(last, null, newNode)) {
+                    TAIL.compareAndSet(this, last, newNode); // May fail if another thread helped
+                    size.incrementAndGet();
+                    return;
+                }
+            } else {
+                TAIL.compareAndSet(this, last, next); // Help a lagging tail forward
+            }
+        }
+    }
+
+    // Remove and return front element, or null if empty
+    @Override
+    public E poll() {
+        while (true) {
+            Node<E> first = head;
+            Node<E> last = tail;
+            Node<E> next = first.next;
+            if (first != head) {
+                continue;
+            }
+            if (next == null) {
+                return null;
+            }
+            if (first == last) {
+                TAIL.compareAndSet(this, last, next); // Tail is lagging behind a new node
+                continue;
+            }
+            E element = next.element;
+            if (HEAD.compareAndSet(this, first, next)) {
+                next.element = null; // next is the new dummy
+                size.decrementAndGet();
+                return element;
+            }
+        }
+    }
+
+    // Return front element without removing, or null if empty
+    @Override
+    public E peek() {
+        while (true) {
+            Node<E> first = head;
+            Node<E> next = first.next;
+            if (next == null) {
+                return null;
+            }
+            E element = next.element;
+            if (element != null && first == head) {
+                return element;
+            }
+        }
+    }
+
+    // Return queue size (approximate while other threads are offering or polling)
+    @Override
+    public int size() {
+        return Math.max(0, size.get());
+    }
+
+    // Check if queue is empty
+    @Override
+    public boolean isEmpty() {
+        return head.next == null;
+    }
+
+    // Visit elements front to back; weakly consistent, never throws on concurrent changes
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        for (Node<E> node = head.next; node != null; node = node.next) {
+            E element = node.element;
+            if (element != null) {
+                action.accept(element);
+            }
+        }
+    }
+}
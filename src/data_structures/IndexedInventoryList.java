@@ -0,0 +1,137 @@
+package data_structures;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+import interfaces.IInventoryList;
+
+// Inventory list with a hash index from item key to array position
+public class IndexedInventoryList<E> implements IInventoryList<E> {
+    private InventoryItem<E>[] bookEntries;
+    private int size;
+    private final IntIntHashMap positions; // Key -> index in bookEntries
+    private final ToIntFunction<? super E> keyFunction; // Stable key, e.g. Book::getBookID
+    private static final int DEFAULT_CAPACITY = 10;
+
+    // Initialize empty list keyed by keyFunction
+    public IndexedInventoryList(ToIntFunction<? super E> keyFunction) {
+        this(keyFunction, DEFAULT_CAPACITY);
+    }
+
+    // Initialize empty list with initial capacity
+    @SuppressWarnings("unchecked")
+    public IndexedInventoryList(ToIntFunction<? super E> keyFunction, int initialCapacity) {
+        if (keyFunction == null) {
+            throw new IllegalArgumentException("Key function cannot be null");
+        }
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        this.keyFunction = keyFunction;
+        this.bookEntries = (InventoryItem<E>[]) new InventoryItem<?>[Math.max(initialCapacity, 1)];
+        this.positions = new IntIntHashMap(initialCapacity);
+        this.size = 0;
+    }
+
+    // Add book with quantity, or update quantity if key already present
+    @Override
+    public boolean add(E book, int quantity) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        try {
+            int key = keyFunction.applyAsInt(book);
+            int index = positions.getOrDefault(key, -1);
+            if (index != -1) {
+                bookEntries[index].setQuantity(quantity);
+                return true;
+            }
+            if (size == bookEntries.length) {
+                bookEntries = grow();
+            }
+            bookEntries[size] = new InventoryItem<>(book, quantity);
+            positions.put(key, size);
+            size++;
+            return true;
+        } catch (Exception e) {
+            System.out.println("Error: " + e);
+            return false;
+        }
+    }
+
+    // Double array capacity
+    private InventoryItem<E>[] grow() {
+        return Arrays.copyOf(this.bookEntries, this.bookEntries.length * 2);
+    }
+
+    // Grow array and key index so they can hold minCapacity items without resizing
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > bookEntries.length) {
+            bookEntries = Arrays.copyOf(bookEntries, Math.max(minCapacity, bookEntries.length * 2));
+        }
+        positions.ensureCapacity(minCapacity);
+    }
+
+    // Get array of all inventory items in insertion order
+    @Override
+    public InventoryItem<E>[] getEntries() {
+        return Arrays.copyOf(bookEntries, size);
+    }
+
+    // Get current size
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    // Check if list is empty
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // Remove book, shifting later entries to keep insertion order
+    @Override
+    public void remove(E book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+
+        int key = keyFunction.applyAsInt(book);
+        int removedEntry = positions.getOrDefault(key, -1);
+        if (removedEntry != -1) {
+            positions.remove(key);
+            for (int i = removedEntry; i < this.size - 1; i++) {
+                bookEntries[i] = bookEntries[i + 1];
+                positions.put(keyFunction.applyAsInt(bookEntries[i].getBook()), i);
+            }
+            this.size--;
+            bookEntries[this.size] = null;
+        }
+    }
+
+    // Get quantity of specific book
+    @Override
+    public int getQuantities(E book) {
+        int index = indexOf(book);
+        return index == -1 ? 0 : bookEntries[index].getQuantity();
+    }
+
+    // Find index of book in list
+    @Override
+    public int indexOf(E book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        return positions.getOrDefault(keyFunction.applyAsInt(book), -1);
+    }
+
+    // Check if book exists in inventory
+    @Override
+    public boolean contains(E book) {
+        return indexOf(book) != -1;
+    }
+}
@@ -0,0 +1,234 @@
+package data_structures;
+
+import java.util.Arrays;
+
+// Binary min-heap of int IDs keyed by int priority, with an ID -> position index so a key can
+// be changed or removed in O(log n). Ties are broken by ID, so the order is total.
+public class IndexedMinHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] ids;
+    private int[] keys;
+    private int size;
+    private final IntIntHashMap positions; // ID -> index in ids/keys
+
+    // Initialize empty heap
+    public IndexedMinHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Initialize empty heap sized for expected number of IDs
+    public IndexedMinHeap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        this.ids = new int[Math.max(expectedSize, 1)];
+        this.keys = new int[Math.max(expectedSize, 1)];
+        this.positions = new IntIntHashMap(expectedSize);
+    }
+
+    // Insert ID with key, or change its key if already present
+    public void put(int id, int key) {
+        int index = positions.getOrDefault(id, -1);
+        if (index >= 0) {
+            int previous = keys[index];
+            keys[index] = key;
+            if (key < previous) {
+                siftUp(index);
+            } else if (key > previous) {
+                siftDown(index);
+            }
+            return;
+        }
+        ensureCapacity(size + 1);
+        ids[size] = id;
+        keys[size] = key;
+        positions.put(id, size);
+        siftUp(size++);
+    }
+
+    // Remove ID, returns false if not present
+    public boolean remove(int id) {
+        int index = positions.getOrDefault(id, -1);
+        if (index < 0) {
+            return false;
+        }
+        positions.remove(id);
+        int last = --size;
+        if (index != last) {
+            move(last, index);
+            siftDown(index);
+            siftUp(index);
+        }
+        return true;
+    }
+
+    // Check whether ID is present
+    public boolean contains(int id) {
+        return positions.containsKey(id);
+    }
+
+    // Get key of ID, or defaultKey if absent
+    public int getKey(int id, int defaultKey) {
+        int index = positions.getOrDefault(id, -1);
+        return index >= 0 ? keys[index] : defaultKey;
+    }
+
+    // Get ID with the smallest key
+    public int peekId() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return ids[0];
+    }
+
+    // Get IDs of up to k smallest keys, ascending, in O(k log k) without changing the heap
+    public int[] smallest(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("K cannot be negative");
+        }
+        return smallest(k, Integer.MAX_VALUE, false);
+    }
+
+    // Get IDs whose key is below bound, ascending, in O(m log m) for m results
+    public int[] below(int bound) {
+        return smallest(Integer.MAX_VALUE, bound, true);
+    }
+
+    // Pre-size for expected number of IDs
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > ids.length) {
+            int capacity = Math.max(expectedSize, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        positions.ensureCapacity(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Best-first walk of the heap: a small frontier heap of positions holds the candidates,
+    // since every position's children come after it
+    private int[] smallest(int k, int bound, boolean bounded) {
+        int[] result = new int[Math.min(k, Math.min(size, DEFAULT_CAPACITY))];
+        int count = 0;
+        int[] frontier = new int[DEFAULT_CAPACITY];
+        int frontierSize = 0;
+        if (size > 0) {
+            frontier[frontierSize++] = 0;
+        }
+        while (frontierSize > 0 && count < k) {
+            int position = frontier[0];
+            if (bounded && keys[position] >= bound) {
+                break;
+            }
+            if (count == result.length) {
+                result = Arrays.copyOf(result, (int) Math.min((long) count * 2, Math.min(k, size)));
+            }
+            result[count++] = ids[position];
+            // Replace the taken position with its children
+            frontier[0] = frontier[--frontierSize];
+            siftDownPositions(frontier, frontierSize, 0);
+            for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+                if (frontierSize == frontier.length) {
+                    frontier = Arrays.copyOf(frontier, frontierSize * 2);
+                }
+                frontier[frontierSize] = child;
+                siftUpPositions(frontier, frontierSize++);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private boolean less(int i, int j) {
+        return keys[i] != keys[j] ? keys[i] < keys[j] : ids[i] < ids[j];
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && less(left, smallest)) {
+                smallest = left;
+            }
+            if (right < size && less(right, smallest)) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void siftUpPositions(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(heap[index], heap[parent])) {
+                return;
+            }
+            int temp = heap[index];
+            heap[index] = heap[parent];
+            heap[parent] = temp;
+            index = parent;
+        }
+    }
+
+    private void siftDownPositions(int[] heap, int length, int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < length && less(heap[left], heap[smallest])) {
+                smallest = left;
+            }
+            if (right < length && less(heap[right], heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            int temp = heap[index];
+            heap[index] = heap[smallest];
+            heap[smallest] = temp;
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int id = ids[i];
+        int key = keys[i];
+        ids[i] = ids[j];
+        keys[i] = keys[j];
+        ids[j] = id;
+        keys[j] = key;
+        positions.put(ids[i], i);
+        positions.put(ids[j], j);
+    }
+
+    // Move the entry at from into slot to (from is being vacated)
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        keys[to] = keys[from];
+        positions.put(ids[to], to);
+    }
+}
@@ -0,0 +1,93 @@
+package data_structures;
+
+import java.util.function.Consumer;
+
+// Open-addressing hash map from primitive int keys to object values
+public class IntHashMap<V> extends IntKeyTable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] values; // Parallel to the key table
+
+    // Initialize empty map with default capacity
+    public IntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Initialize empty map sized for expected number of entries
+    public IntHashMap(int expectedSize) {
+        super(expectedSize);
+        this.values = new Object[capacity()];
+    }
+
+    // Get value for key, or null if absent
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    // Check if key is present
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    // Insert or replace value for key, returns previous value or null
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+        int slot = claim(key);
+        if (slot >= 0) {
+            V old = (V) values[slot];
+            values[slot] = value;
+            return old;
+        }
+        values[~slot] = value;
+        added();
+        return null;
+    }
+
+    // Remove key, returns removed value or null
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = (V) values[slot];
+        removeAt(slot);
+        return old;
+    }
+
+    // Visit every value (in table order)
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (int i = 0; i < values.length; i++) {
+            if (isUsed(i)) {
+                action.accept((V) values[i]);
+            }
+        }
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null; // Let the value be collected
+    }
+
+    @Override
+    void resizeValues(int capacity, int[] targets) {
+        Object[] oldValues = values;
+        values = new Object[capacity];
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] >= 0) {
+                values[targets[i]] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package data_structures;
+
+// Open-addressing hash map from int keys to int values (no boxing)
+public class IntIntHashMap extends IntKeyTable {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values; // Parallel to the key table
+
+    // Initialize empty map with default capacity
+    public IntIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Initialize empty map sized for expected number of entries
+    public IntIntHashMap(int expectedSize) {
+        super(expectedSize);
+        this.values = new int[capacity()];
+    }
+
+    // Get value for key, or defaultValue if absent
+    public int getOrDefault(int key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    // Check if key is present
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    // Insert or replace value for key
+    public void put(int key, int value) {
+        int slot = claim(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            return;
+        }
+        values[~slot] = value;
+        added();
+    }
+
+    // Remove key, returns true if it was present
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        // Nothing to release for primitive values
+    }
+
+    @Override
+    void resizeValues(int capacity, int[] targets) {
+        int[] oldValues = values;
+        values = new int[capacity];
+        for (int i = 0; i < targets.length; i++) {
+            if (targets[i] >= 0) {
+                values[targets[i]] = oldValues[i];
+            }
+        }
+    }
+}
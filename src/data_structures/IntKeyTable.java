@@ -0,0 +1,175 @@
+package data_structures;
+
+import java.util.Arrays;
+
+// Open-addressing table of primitive int keys (linear probing, backward-shift deletion), shared by
+// IntHashMap and IntIntHashMap. Subclasses keep the value in a parallel array at the same slot and
+// follow the table through moveValue, clearValue and resizeValues.
+abstract class IntKeyTable {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int threshold;
+
+    // Initialize empty table sized for expected number of entries
+    IntKeyTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    // Find the slot holding key, or -1 if absent
+    final int find(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Find the slot holding key; if absent, claim a free slot for it and return ~slot.
+    // The caller stores the value there, then calls added()
+    final int claim(int key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        return ~slot;
+    }
+
+    // Count the entry stored by claim, growing the table if needed
+    final void added() {
+        if (++size > threshold) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    // Remove the entry at slot
+    final void removeAt(int slot) {
+        shiftBack(slot);
+        size--;
+    }
+
+    // Check if slot holds an entry
+    final boolean isUsed(int slot) {
+        return used[slot];
+    }
+
+    // Get number of slots
+    final int capacity() {
+        return keys.length;
+    }
+
+    // Move the value at slot from to slot to
+    abstract void moveValue(int from, int to);
+
+    // Drop the value at slot (slot no longer holds an entry)
+    abstract void clearValue(int slot);
+
+    // Replace the value array with one of capacity; the value at old slot i moves to targets[i]
+    // (or is dropped if targets[i] is -1)
+    abstract void resizeValues(int capacity, int[] targets);
+
+    // Grow table so it can hold expectedSize entries without rehashing
+    public void ensureCapacity(int expectedSize) {
+        int required = tableSizeFor(expectedSize);
+        if (required > keys.length) {
+            rehash(required);
+        }
+    }
+
+    // Remove all entries
+    public void clear() {
+        for (int slot = 0; slot < used.length; slot++) {
+            if (used[slot]) {
+                clearValue(slot);
+            }
+        }
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    // Get number of entries
+    public int size() {
+        return size;
+    }
+
+    // Check if map is empty
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Close the gap left by a removed slot (backward-shift deletion, no tombstones)
+    private void shiftBack(int gap) {
+        int slot = (gap + 1) & mask;
+        while (used[slot]) {
+            int home = hash(keys[slot]) & mask;
+            // Move entry into the gap if its home slot is not between gap and slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                moveValue(slot, gap);
+                gap = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[gap] = false;
+        clearValue(gap);
+    }
+
+    // Rebuild table with new capacity
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        int[] targets = new int[oldKeys.length];
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) {
+                targets[i] = -1;
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            targets[i] = slot;
+        }
+        resizeValues(newCapacity, targets);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    // Smallest power of two table that keeps expectedSize under the load factor
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Spread sequential keys across the table (Fibonacci hashing)
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -50,6 +50,14 @@ public class InventoryList<E> implements IInventoryList<E> {
         return Arrays.copyOf(this.bookEntries, this.bookEntries.length * 2);
     }
 
+    // Grow array so it can hold minCapacity items without resizing
+    @Override
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > bookEntries.length) {
+            bookEntries = Arrays.copyOf(bookEntries, Math.max(minCapacity, bookEntries.length * 2));
+        }
+    }
+
     // Get array of all inventory items
     @Override
     public InventoryItem<E>[] getEntries() {
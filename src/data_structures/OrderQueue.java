@@ -1,5 +1,6 @@
 package data_structures;
 
+import java.util.function.Consumer;
 import interfaces.IOrderQueue;
 import models.Order;
 
@@ -16,10 +17,12 @@ public class OrderQueue<E> implements IOrderQueue<E> {
     }
 
     private Node<E> head; // Front of queue
+    private Node<E> tail; // Back of queue
     private int size;     // Queue size
 
     public OrderQueue() {
         this.head = null;
+        this.tail = null;
         this.size = 0;
     }
 
@@ -32,19 +35,19 @@ public class OrderQueue<E> implements IOrderQueue<E> {
 
         try {
             Node<E> newNode = new Node<>(element);
+            if (element instanceof Order) {
+                ((Order) element).next = null;
+            }
             if (isEmpty()) {
                 head = newNode;
             } else {
-                Node<E> current = head;
-                while (current.next != null) {
-                    current = current.next;
-                }
-                current.next = newNode;
+                tail.next = newNode;
                 // Update Order's next pointer
                 if (element instanceof Order) {
-                    ((Order) current.element).next = (Order) element;
+                    ((Order) tail.element).next = (Order) element;
                 }
             }
+            tail = newNode;
             size++;
         } catch (Exception e) {
             System.out.println("Error: " + e);
@@ -62,6 +65,7 @@ public class OrderQueue<E> implements IOrderQueue<E> {
             E oldElement = head.element;
             if (size == 1) {
                 head = null;
+                tail = null;
             } else {
                 Node<E> next = head.next;
                 head.next = null;
@@ -104,4 +108,15 @@ public class OrderQueue<E> implements IOrderQueue<E> {
     public boolean isEmpty() {
         return this.size == 0;
     }
+
+    // Visit elements front to back
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        for (Node<E> node = head; node != null; node = node.next) {
+            action.accept(node.element);
+        }
+    }
 }
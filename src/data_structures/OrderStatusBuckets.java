@@ -0,0 +1,243 @@
+package data_structures;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import models.Order;
+import models.enums.OrderStatus;
+
+// One doubly-linked list of orders per OrderStatus, with a live count per status. The links live
+// here, not in the orders: each added order gets a slot (found by order ID) in parallel prev/next
+// arrays, and freed slots are reused. An added order moves to the tail of its new status list in
+// O(1) whenever its status is set, so counts need no scan and iterating a status walks only the
+// orders in it, without touching the Order objects. Thread-safe.
+public class OrderStatusBuckets {
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NIL = -1; // No slot
+
+    private final IntIntHashMap slots; // Order ID -> slot
+    private Order[] orders; // Slot -> order (null: free)
+    private int[] prev; // Slot -> previous slot in its status list
+    private int[] next; // Slot -> next slot in its status list, or next free slot
+    private int[] listed; // Slot -> ordinal of the status list it is linked into
+    private int freeSlot; // Head of the free slot chain
+    private int used; // Slots handed out so far (free chain holds the released ones below this)
+    private final int[] heads; // Status ordinal -> first slot, in the order they entered it
+    private final int[] tails; // Status ordinal -> last slot
+    private final int[] counts; // Status ordinal -> number of orders
+    private final ReentrantLock lock; // Guards everything above
+
+    public OrderStatusBuckets() {
+        this.slots = new IntIntHashMap();
+        this.orders = new Order[DEFAULT_CAPACITY];
+        this.prev = new int[DEFAULT_CAPACITY];
+        this.next = new int[DEFAULT_CAPACITY];
+        this.listed = new int[DEFAULT_CAPACITY];
+        this.freeSlot = NIL;
+        this.used = 0;
+        this.heads = new int[STATUSES.length];
+        this.tails = new int[STATUSES.length];
+        this.counts = new int[STATUSES.length];
+        this.lock = new ReentrantLock();
+        Arrays.fill(heads, NIL);
+        Arrays.fill(tails, NIL);
+    }
+
+    // Add order under its current status; later status changes move it. Returns false if it is
+    // already in these buckets.
+    public boolean add(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        lock.lock();
+        try {
+            if (order.getStatusBuckets() == this) {
+                return false;
+            }
+            if (order.getStatusBuckets() != null) {
+                throw new IllegalArgumentException("Order #" + order.getOrderId() + " is already in other buckets");
+            }
+            if (slots.containsKey(order.getOrderId())) {
+                throw new IllegalArgumentException("Another order #" + order.getOrderId() + " is already listed");
+            }
+            int slot = allocateSlot();
+            orders[slot] = order;
+            slots.put(order.getOrderId(), slot);
+            // Attach before reading the status, so a change racing with this is never missed
+            order.setStatusBuckets(this);
+            link(slot, order.getStatus().ordinal());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove order, returns false if it is not in these buckets
+    public boolean remove(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        lock.lock();
+        try {
+            if (order.getStatusBuckets() != this) {
+                return false;
+            }
+            int slot = slots.getOrDefault(order.getOrderId(), NIL);
+            slots.remove(order.getOrderId());
+            unlink(slot);
+            freeSlot(slot);
+            order.setStatusBuckets(null);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called by Order.setStatus after the status is written: moves the order to its current
+    // status list. Re-reading the status under the lock means concurrent changes leave the order
+    // filed under whichever status was written last.
+    public void statusChanged(Order order) {
+        lock.lock();
+        try {
+            if (order.getStatusBuckets() != this) {
+                return;
+            }
+            int slot = slots.getOrDefault(order.getOrderId(), NIL);
+            int status = order.getStatus().ordinal();
+            if (listed[slot] != status) {
+                unlink(slot);
+                link(slot, status);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get number of orders in status
+    public int count(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        lock.lock();
+        try {
+            return counts[status.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get number of orders per status, indexed by status ordinal (one consistent moment)
+    public int[] counts() {
+        lock.lock();
+        try {
+            return counts.clone();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get total number of orders
+    public int size() {
+        lock.lock();
+        try {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get orders in status, oldest arrival in that status first
+    public Order[] toArray(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        lock.lock();
+        try {
+            Order[] result = new Order[counts[status.ordinal()]];
+            int count = 0;
+            for (int slot = heads[status.ordinal()]; slot != NIL; slot = next[slot]) {
+                result[count++] = orders[slot];
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Apply action to each order in status while holding the lock (action must not change statuses)
+    public void forEach(OrderStatus status, Consumer<Order> action) {
+        if (status == null || action == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        lock.lock();
+        try {
+            for (int slot = heads[status.ordinal()]; slot != NIL; slot = next[slot]) {
+                action.accept(orders[slot]);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Append slot to the tail of the list for status ordinal bucket; caller must hold the lock
+    private void link(int slot, int bucket) {
+        int tail = tails[bucket];
+        prev[slot] = tail;
+        next[slot] = NIL;
+        if (tail == NIL) {
+            heads[bucket] = slot;
+        } else {
+            next[tail] = slot;
+        }
+        tails[bucket] = slot;
+        listed[slot] = bucket;
+        counts[bucket]++;
+    }
+
+    // Remove slot from the list it is filed in; caller must hold the lock
+    private void unlink(int slot) {
+        int bucket = listed[slot];
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NIL) {
+            heads[bucket] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NIL) {
+            tails[bucket] = before;
+        } else {
+            prev[after] = before;
+        }
+        counts[bucket]--;
+    }
+
+    // Take a free slot, growing the arrays if none is left; caller must hold the lock
+    private int allocateSlot() {
+        if (freeSlot != NIL) {
+            int slot = freeSlot;
+            freeSlot = next[slot];
+            return slot;
+        }
+        if (used == orders.length) {
+            int capacity = orders.length * 2;
+            orders = Arrays.copyOf(orders, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+            listed = Arrays.copyOf(listed, capacity);
+        }
+        return used++;
+    }
+
+    // Return slot to the free chain; caller must hold the lock
+    private void freeSlot(int slot) {
+        orders[slot] = null;
+        next[slot] = freeSlot;
+        freeSlot = slot;
+    }
+}
@@ -0,0 +1,171 @@
+package data_structures;
+
+import java.util.Arrays;
+
+// Growable sorted set of int IDs (posting list for search indexes). Removal only marks the slot
+// dead (a tombstone) so bulk removals do not shift the array once per ID; the list is compacted
+// in one pass once a quarter of its slots are dead. Readers walk positions with next()/seek(),
+// which skip dead slots, and never modify the list, so concurrent reads stay safe.
+public class PostingList {
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int[] ids;    // Ascending, including dead slots
+    private long[] dead;  // Bit per slot: set if the ID there was removed
+    private int length;   // Slots in use, live or dead
+    private int removed;  // Dead slots among them
+
+    public PostingList() {
+        this.ids = new int[DEFAULT_CAPACITY];
+        this.dead = new long[1];
+        this.length = 0;
+        this.removed = 0;
+    }
+
+    // Insert ID keeping ascending order, returns false if already present
+    public boolean add(int id) {
+        // Fast path: IDs are usually added in increasing order
+        if (length == 0 || ids[length - 1] < id) {
+            ensureCapacity();
+            ids[length++] = id;
+            return true;
+        }
+        int index = Arrays.binarySearch(ids, 0, length, id);
+        if (index >= 0) {
+            if (!isDead(index)) {
+                return false;
+            }
+            setDead(index, false); // Re-added before compaction: revive the slot
+            removed--;
+            return true;
+        }
+        int insertAt = -index - 1;
+        // A dead neighbour can take the ID without moving anything
+        if (insertAt > 0 && isDead(insertAt - 1)) {
+            reuse(insertAt - 1, id);
+            return true;
+        }
+        if (isDead(insertAt)) {
+            reuse(insertAt, id);
+            return true;
+        }
+        if (removed > 0) {
+            compact(); // Shifting below would move the tombstones out of step
+            insertAt = -Arrays.binarySearch(ids, 0, length, id) - 1;
+        }
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, length - insertAt);
+        ids[insertAt] = id;
+        length++;
+        return true;
+    }
+
+    // Remove ID, returns false if not present
+    public boolean remove(int id) {
+        int index = Arrays.binarySearch(ids, 0, length, id);
+        if (index < 0 || isDead(index)) {
+            return false;
+        }
+        setDead(index, true);
+        removed++;
+        // Trailing dead slots are simply dropped, keeping the append path open
+        while (length > 0 && isDead(length - 1)) {
+            setDead(--length, false);
+            removed--;
+        }
+        if (removed > length / 4) {
+            compact();
+        }
+        return true;
+    }
+
+    // Check if ID is present
+    public boolean contains(int id) {
+        int index = Arrays.binarySearch(ids, 0, length, id);
+        return index >= 0 && !isDead(index);
+    }
+
+    // Find first live position at or after from whose ID is >= id (galloping search), or limit()
+    public int seek(int id, int from) {
+        int bound = 1;
+        while (from + bound < length && ids[from + bound] < id) {
+            bound <<= 1;
+        }
+        int low = from + (bound >> 1);
+        int high = Math.min(from + bound, length - 1);
+        if (low > high) {
+            return length;
+        }
+        int index = Arrays.binarySearch(ids, low, high + 1, id);
+        index = index >= 0 ? index : -index - 1;
+        return index < length && isDead(index) ? next(index) : index;
+    }
+
+    // Get next live position after position (use -1 for the first), or limit() if none
+    public int next(int position) {
+        do {
+            position++;
+        } while (position < length && isDead(position));
+        return position;
+    }
+
+    // Get ID at position (a position returned by next or seek)
+    public int get(int position) {
+        if (position < 0 || position >= length) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Limit: " + length);
+        }
+        return ids[position];
+    }
+
+    // Get the end of the position range; next and seek return it when no live ID is left
+    public int limit() {
+        return length;
+    }
+
+    // Get number of IDs
+    public int size() {
+        return length - removed;
+    }
+
+    // Check if list is empty
+    public boolean isEmpty() {
+        return length == removed;
+    }
+
+    // Drop every dead slot in one pass
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < length; i++) {
+            if (!isDead(i)) {
+                ids[live++] = ids[i];
+            }
+        }
+        Arrays.fill(dead, 0, (length + 63) >>> 6, 0L);
+        length = live;
+        removed = 0;
+    }
+
+    private void reuse(int position, int id) {
+        ids[position] = id;
+        setDead(position, false);
+        removed--;
+    }
+
+    private boolean isDead(int position) {
+        return (dead[position >>> 6] & (1L << position)) != 0;
+    }
+
+    private void setDead(int position, boolean value) {
+        if (value) {
+            dead[position >>> 6] |= 1L << position;
+        } else {
+            dead[position >>> 6] &= ~(1L << position);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (length == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            dead = Arrays.copyOf(dead, (ids.length + 63) >>> 6);
+        }
+    }
+}
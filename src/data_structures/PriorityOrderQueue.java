@@ -0,0 +1,204 @@
+package data_structures;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import interfaces.IOrderQueue;
+import models.Order;
+
+// Heap-based priority queue: higher priority levels are served first, equal levels in arrival
+// order, with O(log n) offer and poll. The heap is 4-ary (half the depth of a binary heap, so
+// fewer cache misses per poll). Each element is keyed by its arrival sequence minus
+// level * agingWindow, so an element is never overtaken by one arriving more than
+// (top level - its level) * agingWindow offers after it: lower levels age instead of starving.
+// An aging window of 0 gives plain FIFO order. Orders' next pointers are not maintained
+// (the heap has no stable successor), so they are cleared on offer and poll.
+public class PriorityOrderQueue<E> implements IOrderQueue<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+    public static final int DEFAULT_AGING_WINDOW = 1000; // Offers a level is worth
+
+    private final ToIntFunction<? super E> priority; // Element -> level (0 lowest), read on offer
+    private final int agingWindow;
+    private Object[] elements; // Heap order
+    private long[] keys; // Parallel to elements: sequence - level * agingWindow
+    private long[] sequences; // Parallel to elements: arrival sequence (tie-break)
+    private int size;
+    private long nextSequence;
+
+    // Initialize with level function and the default aging window
+    public PriorityOrderQueue(ToIntFunction<? super E> priority) {
+        this(priority, DEFAULT_AGING_WINDOW, DEFAULT_CAPACITY);
+    }
+
+    // Initialize with level function, aging window (offers per level) and initial capacity
+    public PriorityOrderQueue(ToIntFunction<? super E> priority, int agingWindow, int initialCapacity) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority function cannot be null");
+        }
+        if (agingWindow < 0) {
+            throw new IllegalArgumentException("Aging window cannot be negative");
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.priority = priority;
+        this.agingWindow = agingWindow;
+        this.elements = new Object[initialCapacity];
+        this.keys = new long[initialCapacity];
+        this.sequences = new long[initialCapacity];
+    }
+
+    // Queue of orders by their priority class
+    public static PriorityOrderQueue<Order> forOrders(int agingWindow) {
+        return new PriorityOrderQueue<>(order -> order.getPriority().ordinal(), agingWindow, DEFAULT_CAPACITY);
+    }
+
+    // Add element in its priority place
+    @Override
+    public void offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        int level = priority.applyAsInt(element);
+        if (level < 0) {
+            throw new IllegalArgumentException("Priority level cannot be negative");
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        if (element instanceof Order) {
+            ((Order) element).next = null;
+        }
+        long sequence = nextSequence++;
+        siftUp(size++, element, sequence - (long) level * agingWindow, sequence);
+    }
+
+    // Remove and return front element
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        E front = (E) elements[0];
+        int last = --size;
+        Object moved = elements[last];
+        long key = keys[last];
+        long sequence = sequences[last];
+        elements[last] = null;
+        if (last > 0) {
+            siftDown(elements, keys, sequences, last, 0, moved, key, sequence);
+        }
+        if (front instanceof Order) {
+            ((Order) front).next = null;
+        }
+        return front;
+    }
+
+    // Return front element without removing
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return (E) elements[0];
+    }
+
+    // Return queue size
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Check if queue is empty
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getAgingWindow() {
+        return agingWindow;
+    }
+
+    // Visit elements front to back (the order poll would return them) by draining a copy of the
+    // heap, O(n log n)
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        Object[] heap = Arrays.copyOf(elements, size);
+        long[] heapKeys = Arrays.copyOf(keys, size);
+        long[] heapSequences = Arrays.copyOf(sequences, size);
+        for (int remaining = size; remaining > 0; ) {
+            E front = (E) heap[0];
+            int last = --remaining;
+            if (last > 0) {
+                siftDown(heap, heapKeys, heapSequences, last, 0, heap[last], heapKeys[last], heapSequences[last]);
+            }
+            action.accept(front);
+        }
+    }
+
+    // Move the hole at index up until (key, sequence) fits, then store the element there
+    private void siftUp(int index, Object element, long key, long sequence) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 2;
+            if (!before(key, sequence, keys[parent], sequences[parent])) {
+                break;
+            }
+            elements[index] = elements[parent];
+            keys[index] = keys[parent];
+            sequences[index] = sequences[parent];
+            index = parent;
+        }
+        elements[index] = element;
+        keys[index] = key;
+        sequences[index] = sequence;
+    }
+
+    // Move the hole at index down within heap[0, length) until (key, sequence) fits, then store
+    // the element there
+    private static void siftDown(Object[] heap, long[] heapKeys, long[] heapSequences, int length,
+            int index, Object element, long key, long sequence) {
+        while (true) {
+            int first = 4 * index + 1;
+            if (first >= length) {
+                break;
+            }
+            // Earliest of up to four children
+            int child = first;
+            int end = Math.min(first + 4, length);
+            for (int candidate = first + 1; candidate < end; candidate++) {
+                if (before(heapKeys[candidate], heapSequences[candidate], heapKeys[child], heapSequences[child])) {
+                    child = candidate;
+                }
+            }
+            if (!before(heapKeys[child], heapSequences[child], key, sequence)) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapKeys[index] = heapKeys[child];
+            heapSequences[index] = heapSequences[child];
+            index = child;
+        }
+        heap[index] = element;
+        heapKeys[index] = key;
+        heapSequences[index] = sequence;
+    }
+
+    // Whether (key, sequence) a is served before b; sequences are unique, so the order is total
+    private static boolean before(long keyA, long sequenceA, long keyB, long sequenceB) {
+        return keyA != keyB ? keyA < keyB : sequenceA < sequenceB;
+    }
+
+    // Double capacity
+    private void grow() {
+        int capacity = elements.length * 2;
+        elements = Arrays.copyOf(elements, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+    }
+}
@@ -0,0 +1,117 @@
+package data_structures;
+
+import java.util.function.Consumer;
+import interfaces.IOrderQueue;
+import models.Order;
+
+// Array-backed circular queue (FIFO) with power-of-two capacity
+public class RingOrderQueue<E> implements IOrderQueue<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int head; // Index of front element
+    private int size; // Queue size
+    private int mask; // elements.length - 1
+
+    public RingOrderQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // Initialize with capacity rounded up to a power of two
+    public RingOrderQueue(int initialCapacity) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int capacity = 1;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        this.elements = new Object[capacity];
+        this.mask = capacity - 1;
+        this.head = 0;
+        this.size = 0;
+    }
+
+    // Add element to back of queue
+    @Override
+    public void offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        if (size == elements.length) {
+            grow();
+        }
+        if (element instanceof Order) {
+            ((Order) element).next = null;
+            // Update previous tail Order's next pointer
+            if (size > 0) {
+                Object last = elements[(head + size - 1) & mask];
+                ((Order) last).next = (Order) element;
+            }
+        }
+        elements[(head + size) & mask] = element;
+        size++;
+    }
+
+    // Remove and return front element
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        E oldElement = (E) elements[head];
+        elements[head] = null;
+        head = (head + 1) & mask;
+        size--;
+        if (oldElement instanceof Order) {
+            ((Order) oldElement).next = null;
+        }
+        return oldElement;
+    }
+
+    // Return front element without removing
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return (E) elements[head];
+    }
+
+    // Return queue size
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    // Check if queue is empty
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    // Visit elements front to back
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        for (int i = 0; i < size; i++) {
+            action.accept((E) elements[(head + i) & mask]);
+        }
+    }
+
+    // Double capacity, unwrapping elements to start at index 0
+    private void grow() {
+        Object[] larger = new Object[elements.length * 2];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, larger, 0, firstPart);
+        System.arraycopy(elements, 0, larger, firstPart, head);
+        elements = larger;
+        mask = larger.length - 1;
+        head = 0;
+    }
+}
@@ -0,0 +1,316 @@
+package data_structures;
+
+import java.util.Comparator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+// Ordered index backed by a size-augmented AVL tree
+public class SortedIndex<E> {
+    // Tree node with subtree height and size
+    private static class Node<E> {
+        private E element;
+        private Node<E> left;
+        private Node<E> right;
+        private int height;
+        private int size;
+
+        private Node(E element) {
+            this.element = element;
+            this.height = 1;
+            this.size = 1;
+        }
+    }
+
+    private final Comparator<? super E> comparator; // Must be a total order (no ties)
+    private Node<E> root;
+    private boolean changed; // Set by insert/remove helpers
+
+    public SortedIndex(Comparator<? super E> comparator) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Comparator cannot be null");
+        }
+        this.comparator = comparator;
+        this.root = null;
+    }
+
+    // Insert element, returns false if an equal element is already present
+    public boolean insert(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        changed = false;
+        root = insert(root, element);
+        return changed;
+    }
+
+    // Remove element, returns false if not present.
+    // Element's sort key must not have changed since it was inserted.
+    public boolean remove(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        changed = false;
+        root = remove(root, element);
+        return changed;
+    }
+
+    // Insert many elements at once, given in strictly ascending order and none already present.
+    // Merges with the current contents and rebuilds a perfectly balanced tree in O(n + m), unless
+    // inserting one at a time in O(m log(n + m)) is cheaper (a small batch into a large tree).
+    @SuppressWarnings("unchecked")
+    public void insertAll(E[] sorted) {
+        if (sorted == null) {
+            throw new IllegalArgumentException("Elements cannot be null");
+        }
+        for (int i = 1; i < sorted.length; i++) {
+            if (comparator.compare(sorted[i - 1], sorted[i]) >= 0) {
+                throw new IllegalArgumentException("Elements must be strictly ascending");
+            }
+        }
+        int existing = size();
+        if ((long) sorted.length * (32 - Integer.numberOfLeadingZeros(existing + sorted.length)) < existing) {
+            for (int i = 0; i < sorted.length; i++) {
+                if (!insert(sorted[i])) {
+                    while (--i >= 0) {
+                        remove(sorted[i]); // Undo, so a rejected batch leaves the index unchanged
+                    }
+                    throw new IllegalArgumentException("Element already present");
+                }
+            }
+            return;
+        }
+        Object[] current = new Object[existing];
+        int[] count = {0};
+        forEach(element -> current[count[0]++] = element);
+
+        Object[] merged = new Object[existing + sorted.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < existing && j < sorted.length) {
+            int cmp = comparator.compare((E) current[i], sorted[j]);
+            if (cmp == 0) {
+                throw new IllegalArgumentException("Element already present");
+            }
+            merged[k++] = cmp < 0 ? current[i++] : sorted[j++];
+        }
+        while (i < existing) {
+            merged[k++] = current[i++];
+        }
+        while (j < sorted.length) {
+            merged[k++] = sorted[j++];
+        }
+        root = build(merged, 0, merged.length);
+    }
+
+    // Get number of elements
+    public int size() {
+        return size(root);
+    }
+
+    // Check if index is empty
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    // Copy elements in sorted order into array (must hold size() elements)
+    public E[] toArray(E[] array) {
+        if (array == null || array.length < size()) {
+            throw new IllegalArgumentException("Array too small");
+        }
+        int[] count = {0};
+        forEach(element -> array[count[0]++] = element);
+        return array;
+    }
+
+    // Visit elements in sorted order
+    public void forEach(Consumer<? super E> action) {
+        // Explicit stack; AVL height stays below 1.45 * log2(n)
+        @SuppressWarnings("unchecked")
+        Node<E>[] stack = (Node<E>[]) new Node<?>[64];
+        int top = 0;
+        Node<E> current = root;
+        while (current != null || top > 0) {
+            while (current != null) {
+                stack[top++] = current;
+                current = current.left;
+            }
+            current = stack[--top];
+            action.accept(current.element);
+            current = current.right;
+        }
+    }
+
+    // Get rank of the first element for which position returns >= 0, or size() if there is none.
+    // position must be negative for a prefix of the order and >= 0 after it (e.g. compare to a key).
+    public int lowerBound(ToIntFunction<? super E> position) {
+        if (position == null) {
+            throw new IllegalArgumentException("Position function cannot be null");
+        }
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            if (position.applyAsInt(node.element) < 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    // Visit elements in sorted order starting at rank, until visitor returns false
+    public void walk(int fromRank, Predicate<? super E> visitor) {
+        if (fromRank < 0) {
+            throw new IllegalArgumentException("Rank cannot be negative");
+        }
+        @SuppressWarnings("unchecked")
+        Node<E>[] stack = (Node<E>[]) new Node<?>[64];
+        int top = 0;
+        // Descend to the element at fromRank, stacking ancestors that come after it
+        Node<E> node = root;
+        int rank = fromRank;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                stack[top++] = node;
+                node = node.left;
+            } else if (rank == leftSize) {
+                stack[top++] = node;
+                break;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        while (top > 0) {
+            Node<E> current = stack[--top];
+            if (!visitor.test(current.element)) {
+                return;
+            }
+            current = current.right;
+            while (current != null) {
+                stack[top++] = current;
+                current = current.left;
+            }
+        }
+    }
+
+    // Build a balanced subtree from sorted[from, to)
+    @SuppressWarnings("unchecked")
+    private Node<E> build(Object[] sorted, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Node<E> node = new Node<>((E) sorted[mid]);
+        node.left = build(sorted, from, mid);
+        node.right = build(sorted, mid + 1, to);
+        update(node);
+        return node;
+    }
+
+    private Node<E> insert(Node<E> node, E element) {
+        if (node == null) {
+            changed = true;
+            return new Node<>(element);
+        }
+        int cmp = comparator.compare(element, node.element);
+        if (cmp < 0) {
+            node.left = insert(node.left, element);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, element);
+        } else {
+            return node;
+        }
+        return rebalance(node);
+    }
+
+    private Node<E> remove(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(element, node.element);
+        if (cmp < 0) {
+            node.left = remove(node.left, element);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, element);
+        } else {
+            changed = true;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with in-order successor
+            Node<E> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.element = successor.element;
+            node.right = removeMin(node.right);
+        }
+        return rebalance(node);
+    }
+
+    private Node<E> removeMin(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    // Restore AVL balance and cached height/size
+    private Node<E> rebalance(Node<E> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node<E> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,165 @@
+package data_structures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.locks.ReentrantLock;
+import models.Book;
+
+// Ordered index of books by stock quantity (ties by ID) for range queries in O(log n + k).
+// Stock changes lock-free and often, so writers only queue the changed book (markChanged);
+// the tree is brought up to date from the queue before each query, or by a writer once many
+// changes are pending. A query therefore sees every stock change that completed before it began.
+// Thread-safe.
+public class StockRangeIndex {
+    private static final int DRAIN_THRESHOLD = 4096; // Pending changes before a writer repairs the tree
+
+    // Book filed under the quantity it had when last repaired
+    private static class Entry {
+        private final Book book;
+        private int quantity; // Changed only while the entry is out of the tree
+
+        private Entry(Book book) {
+            this.book = book;
+            this.quantity = book.getQuantity();
+        }
+    }
+
+    // Total order on entries: stock, then book ID
+    private static final Comparator<Entry> BY_STOCK = (a, b) -> a.quantity != b.quantity
+            ? Integer.compare(a.quantity, b.quantity)
+            : Integer.compare(a.book.getBookID(), b.book.getBookID());
+
+    private final SortedIndex<Entry> tree;
+    private final IntHashMap<Entry> entries; // Book ID -> entry
+    private final ChangeQueue<Book> changed; // Books whose stock changed since the last repair
+    private final ReentrantLock lock; // Guards tree and entries
+
+    public StockRangeIndex() {
+        this.tree = new SortedIndex<>(BY_STOCK);
+        this.entries = new IntHashMap<>();
+        this.changed = new ChangeQueue<>();
+        this.lock = new ReentrantLock();
+    }
+
+    // Add book under its current stock, returns false if already present
+    public boolean add(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        lock.lock();
+        try {
+            if (entries.containsKey(book.getBookID())) {
+                return false;
+            }
+            Entry entry = new Entry(book);
+            entries.put(book.getBookID(), entry);
+            tree.insert(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Add many books with one merge, skipping those already present
+    public void addAll(Book[] books) {
+        if (books == null) {
+            throw new IllegalArgumentException("Books cannot be null");
+        }
+        lock.lock();
+        try {
+            entries.ensureCapacity(entries.size() + books.length);
+            Entry[] added = new Entry[books.length];
+            int count = 0;
+            for (Book book : books) {
+                if (book != null && !entries.containsKey(book.getBookID())) {
+                    Entry entry = new Entry(book);
+                    entries.put(book.getBookID(), entry);
+                    added[count++] = entry;
+                }
+            }
+            added = Arrays.copyOf(added, count);
+            Arrays.sort(added, BY_STOCK);
+            tree.insertAll(added);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remove book, returns false if not present
+    public boolean remove(Book book) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        lock.lock();
+        try {
+            Entry entry = entries.remove(book.getBookID());
+            if (entry == null) {
+                return false;
+            }
+            tree.remove(entry);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Record that book's stock changed (lock-free unless a repair is due)
+    public void markChanged(Book book) {
+        if (changed.add(book) >= DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                repair();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Get books with stock within [min, max], by stock then ID
+    public Book[] range(int min, int max) {
+        lock.lock();
+        try {
+            repair();
+            int from = tree.lowerBound(entry -> entry.quantity < min ? -1 : 0);
+            int to = tree.lowerBound(entry -> entry.quantity <= max ? -1 : 0);
+            Book[] result = new Book[Math.max(0, to - from)];
+            int[] count = {0};
+            if (result.length > 0) {
+                tree.walk(from, entry -> {
+                    result[count[0]++] = entry.book;
+                    return count[0] < result.length;
+                });
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get number of books indexed
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Refile every queued book under its current stock; caller must hold the lock.
+    // Takes only the changes queued so far, so busy writers cannot keep it running.
+    private void repair() {
+        for (int pending = changed.pending(); pending > 0; pending--) {
+            Book book = changed.poll();
+            if (book == null) {
+                return;
+            }
+            Entry entry = entries.get(book.getBookID());
+            int quantity = book.getQuantity();
+            if (entry != null && entry.quantity != quantity) {
+                tree.remove(entry);
+                entry.quantity = quantity;
+                tree.insert(entry);
+            }
+        }
+    }
+}
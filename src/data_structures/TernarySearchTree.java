@@ -0,0 +1,430 @@
+package data_structures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntToLongFunction;
+import java.util.function.Predicate;
+
+// Array-backed ternary search tree for case-insensitive prefix completion
+public class TernarySearchTree {
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // Word stored at a terminal node and the IDs it belongs to. Every spelling in use is counted,
+    // so the word shown is always the spelling of some live ID.
+    private static class Entry {
+        private final PostingList ids;
+        private String[] spellings; // Distinct spellings in use; spellings[0] is the one shown
+        private int[] spellingCounts; // IDs using each spelling
+        private int spellingCount;
+
+        private Entry() {
+            this.ids = new PostingList();
+            this.spellings = new String[1];
+            this.spellingCounts = new int[1];
+        }
+
+        private String word() {
+            return spellings[0];
+        }
+
+        private void addSpelling(String word) {
+            for (int i = 0; i < spellingCount; i++) {
+                if (spellings[i].equals(word)) {
+                    spellingCounts[i]++;
+                    return;
+                }
+            }
+            if (spellingCount == spellings.length) {
+                spellings = Arrays.copyOf(spellings, spellingCount * 2);
+                spellingCounts = Arrays.copyOf(spellingCounts, spellingCount * 2);
+            }
+            spellings[spellingCount] = word;
+            spellingCounts[spellingCount++] = 1;
+        }
+
+        // Drop one use of a spelling; the last one in the list takes the place of a spelling no longer used
+        private void removeSpelling(String word) {
+            for (int i = 0; i < spellingCount; i++) {
+                if (spellings[i].equals(word)) {
+                    if (--spellingCounts[i] == 0) {
+                        spellingCount--;
+                        spellings[i] = spellings[spellingCount];
+                        spellingCounts[i] = spellingCounts[spellingCount];
+                        spellings[spellingCount] = null;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    // Completion candidate: word, its total weight and its alphabetical position (tie-breaker)
+    private static class Suggestion {
+        private final String word;
+        private final long weight;
+        private final int rank;
+
+        private Suggestion(String word, long weight, int rank) {
+            this.word = word;
+            this.weight = weight;
+            this.rank = rank;
+        }
+    }
+
+    // Heaviest first, then alphabetical
+    private static final Comparator<Suggestion> HEAVIEST_FIRST = (a, b) -> a.weight != b.weight
+            ? Long.compare(b.weight, a.weight)
+            : Integer.compare(a.rank, b.rank);
+
+    // Node fields kept in parallel arrays instead of one object per node
+    private char[] chars;
+    private int[] lo;
+    private int[] eq;
+    private int[] hi;
+    private Entry[] entries;
+    private int nodeCount; // Node slots handed out so far (live or free)
+    private int[] freeNodes; // Slots of pruned nodes, reused first
+    private int freeCount;
+    private int root;
+    private int wordCount; // Terminal nodes with at least one ID
+
+    public TernarySearchTree() {
+        this.chars = new char[DEFAULT_CAPACITY];
+        this.lo = new int[DEFAULT_CAPACITY];
+        this.eq = new int[DEFAULT_CAPACITY];
+        this.hi = new int[DEFAULT_CAPACITY];
+        this.entries = new Entry[DEFAULT_CAPACITY];
+        this.nodeCount = 0;
+        this.freeNodes = new int[DEFAULT_CAPACITY];
+        this.freeCount = 0;
+        this.root = NIL;
+        this.wordCount = 0;
+    }
+
+    // Register word for ID
+    public void add(String word, int id) {
+        if (word == null || word.isEmpty()) {
+            throw new IllegalArgumentException("Word cannot be empty");
+        }
+        int node = insertNode(word.toLowerCase());
+        if (entries[node] == null) {
+            entries[node] = new Entry();
+            wordCount++;
+        }
+        if (entries[node].ids.add(id)) {
+            entries[node].addSpelling(word);
+        }
+    }
+
+    // Unregister word for ID; nodes left with no word below them are freed for reuse
+    public void remove(String word, int id) {
+        if (word == null || word.isEmpty()) {
+            return;
+        }
+        String key = word.toLowerCase();
+        // Record the path: path[i] is a node, links[i] the link slot (node << 2 | 0 lo, 1 eq, 2 hi)
+        // in its parent that points to it (-1 for the root)
+        int[] path = new int[key.length() + 8];
+        int[] links = new int[path.length];
+        int depth = 0;
+        int node = root;
+        int link = -1;
+        int i = 0;
+        while (node != NIL) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                links = Arrays.copyOf(links, depth * 2);
+            }
+            path[depth] = node;
+            links[depth++] = link;
+            char c = key.charAt(i);
+            if (c < chars[node]) {
+                link = node << 2;
+                node = lo[node];
+            } else if (c > chars[node]) {
+                link = node << 2 | 2;
+                node = hi[node];
+            } else if (++i == key.length()) {
+                break;
+            } else {
+                link = node << 2 | 1;
+                node = eq[node];
+            }
+        }
+        if (node == NIL || entries[node] == null || !entries[node].ids.remove(id)) {
+            return;
+        }
+        entries[node].removeSpelling(word);
+        if (!entries[node].ids.isEmpty()) {
+            return;
+        }
+        entries[node] = null;
+        wordCount--;
+
+        // Bottom-up: a node with no word and nothing below it is unlinked; one with a single
+        // sibling subtree is replaced by it (the order of siblings is unchanged either way)
+        for (int d = depth - 1; d >= 0; d--) {
+            node = path[d];
+            if (entries[node] != null || eq[node] != NIL) {
+                return;
+            }
+            int replacement;
+            if (lo[node] == NIL) {
+                replacement = hi[node];
+            } else if (hi[node] == NIL) {
+                replacement = lo[node];
+            } else {
+                return; // Still separates two sibling subtrees
+            }
+            setLink(links[d], replacement);
+            freeNode(node);
+            if (replacement != NIL) {
+                return; // The parent still has a child on this link
+            }
+        }
+    }
+
+    // Get up to k words starting with prefix, in alphabetical order
+    public String[] suggest(String prefix, int k) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        if (k <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        String[] result = new String[k];
+        int count = 0;
+        String key = prefix.toLowerCase();
+        if (key.isEmpty()) {
+            count = collect(root, result, count);
+            return Arrays.copyOf(result, count);
+        }
+
+        int node = findNode(key);
+        if (node == NIL) {
+            return new String[0];
+        }
+        if (entries[node] != null) {
+            result[count++] = entries[node].word();
+        }
+        count = collect(eq[node], result, count);
+        return Arrays.copyOf(result, count);
+    }
+
+    // Get up to k words starting with prefix, heaviest first (ties alphabetical). A word weighs the
+    // sum of weight(id) over its IDs. The subtree below the prefix is walked once while a bounded
+    // heap keeps the k best words, so only O(k) candidates are ever held
+    public String[] suggest(String prefix, int k, IntToLongFunction weight) {
+        if (prefix == null || weight == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        if (k <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        BoundedHeap<Suggestion> best = new BoundedHeap<>(k, HEAVIEST_FIRST);
+        int[] rank = new int[1];
+        Predicate<Entry> offer = entry -> {
+            best.offer(new Suggestion(entry.word(), weigh(entry, weight), rank[0]++));
+            return true;
+        };
+        String key = prefix.toLowerCase();
+        if (key.isEmpty()) {
+            walk(root, offer);
+        } else {
+            int node = findNode(key);
+            if (node == NIL) {
+                return new String[0];
+            }
+            if (entries[node] != null) {
+                offer.test(entries[node]);
+            }
+            walk(eq[node], offer);
+        }
+        Suggestion[] ranked = best.drainSorted(new Suggestion[best.size()]);
+        String[] result = new String[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            result[i] = ranked[i].word;
+        }
+        return result;
+    }
+
+    // Get number of distinct words with at least one ID
+    public int size() {
+        return wordCount;
+    }
+
+    // Get number of nodes in use
+    public int nodeCount() {
+        return nodeCount - freeCount;
+    }
+
+    // Approximate heap bytes used by node arrays (excludes stored word strings)
+    public long estimateMemoryBytes() {
+        // char + 3 ints + 1 compressed reference per node slot
+        long perNode = Character.BYTES + 3L * Integer.BYTES + 4;
+        return perNode * chars.length;
+    }
+
+    // In-order traversal filling result until full
+    private int collect(int start, String[] result, int count) {
+        if (count == result.length) {
+            return count;
+        }
+        int[] filled = { count };
+        walk(start, entry -> {
+            result[filled[0]++] = entry.word();
+            return filled[0] < result.length;
+        });
+        return filled[0];
+    }
+
+    // In-order traversal (lo, node, eq, hi) passing each word's entry to visitor until it returns false
+    private void walk(int start, Predicate<Entry> visitor) {
+        if (start == NIL) {
+            return;
+        }
+        // Stack of node << 1 | visited flag, so deep sibling chains cannot overflow the call stack
+        int[] stack = new int[32];
+        int top = 0;
+        stack[top++] = start << 1;
+        while (top > 0) {
+            int item = stack[--top];
+            int node = item >>> 1;
+            if ((item & 1) == 0) {
+                // Push in reverse: hi, eq, self (visited), lo
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                if (hi[node] != NIL) {
+                    stack[top++] = hi[node] << 1;
+                }
+                if (eq[node] != NIL) {
+                    stack[top++] = eq[node] << 1;
+                }
+                stack[top++] = (node << 1) | 1;
+                if (lo[node] != NIL) {
+                    stack[top++] = lo[node] << 1;
+                }
+            } else if (entries[node] != null && !visitor.test(entries[node])) {
+                return;
+            }
+        }
+    }
+
+    // Sum of weight(id) over the entry's IDs
+    private static long weigh(Entry entry, IntToLongFunction weight) {
+        long total = 0;
+        PostingList ids = entry.ids;
+        for (int p = ids.next(-1); p < ids.limit(); p = ids.next(p)) {
+            total += weight.applyAsLong(ids.get(p));
+        }
+        return total;
+    }
+
+    // Find node for last char of key, or NIL
+    private int findNode(String key) {
+        int node = root;
+        int i = 0;
+        while (node != NIL) {
+            char c = key.charAt(i);
+            if (c < chars[node]) {
+                node = lo[node];
+            } else if (c > chars[node]) {
+                node = hi[node];
+            } else {
+                if (++i == key.length()) {
+                    return node;
+                }
+                node = eq[node];
+            }
+        }
+        return NIL;
+    }
+
+    // Find or create node for last char of key
+    private int insertNode(String key) {
+        if (root == NIL) {
+            root = newNode(key.charAt(0));
+        }
+        int node = root;
+        int i = 0;
+        while (true) {
+            char c = key.charAt(i);
+            if (c < chars[node]) {
+                if (lo[node] == NIL) {
+                    int child = newNode(c);
+                    lo[node] = child;
+                }
+                node = lo[node];
+            } else if (c > chars[node]) {
+                if (hi[node] == NIL) {
+                    int child = newNode(c);
+                    hi[node] = child;
+                }
+                node = hi[node];
+            } else {
+                if (++i == key.length()) {
+                    return node;
+                }
+                if (eq[node] == NIL) {
+                    int child = newNode(key.charAt(i));
+                    eq[node] = child;
+                }
+                node = eq[node];
+            }
+        }
+    }
+
+    // Allocate node, reusing a freed slot first and growing the arrays when full
+    private int newNode(char c) {
+        int node;
+        if (freeCount > 0) {
+            node = freeNodes[--freeCount];
+        } else {
+            if (nodeCount == chars.length) {
+                int capacity = chars.length * 2;
+                chars = Arrays.copyOf(chars, capacity);
+                lo = Arrays.copyOf(lo, capacity);
+                eq = Arrays.copyOf(eq, capacity);
+                hi = Arrays.copyOf(hi, capacity);
+                entries = Arrays.copyOf(entries, capacity);
+            }
+            node = nodeCount++;
+        }
+        chars[node] = c;
+        lo[node] = NIL;
+        eq[node] = NIL;
+        hi[node] = NIL;
+        return node;
+    }
+
+    // Return an unlinked node's slot to the free list
+    private void freeNode(int node) {
+        if (freeCount == freeNodes.length) {
+            freeNodes = Arrays.copyOf(freeNodes, freeCount * 2);
+        }
+        freeNodes[freeCount++] = node;
+        entries[node] = null;
+    }
+
+    // Point the link slot recorded during remove (or the root, for -1) at child
+    private void setLink(int link, int child) {
+        if (link < 0) {
+            root = child;
+            return;
+        }
+        int parent = link >>> 2;
+        switch (link & 3) {
+            case 0:
+                lo[parent] = child;
+                break;
+            case 1:
+                eq[parent] = child;
+                break;
+            default:
+                hi[parent] = child;
+                break;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package data_structures;
+
+import java.util.Arrays;
+
+// Inverted index from character trigrams to IDs, for case-insensitive substring search
+public class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final IntHashMap<PostingList> postings; // Trigram key -> IDs containing it
+    private final IntHashMap<String> texts;         // ID -> lowercased indexed text
+    private final PostingList allIds;               // Every indexed ID, for short queries
+
+    public TrigramIndex() {
+        this.postings = new IntHashMap<>();
+        this.texts = new IntHashMap<>();
+        this.allIds = new PostingList();
+    }
+
+    // Index text under ID, replacing any text previously indexed for it
+    public void add(int id, String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Text cannot be null");
+        }
+        remove(id);
+        String lower = text.toLowerCase();
+        texts.put(id, lower);
+        allIds.add(id);
+        for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+            int key = gram(lower, i);
+            PostingList list = postings.get(key);
+            if (list == null) {
+                list = new PostingList();
+                postings.put(key, list);
+            }
+            list.add(id);
+        }
+    }
+
+    // Remove ID from the index
+    public void remove(int id) {
+        String lower = texts.remove(id);
+        if (lower == null) {
+            return;
+        }
+        allIds.remove(id);
+        for (int i = 0; i + GRAM_LENGTH <= lower.length(); i++) {
+            int key = gram(lower, i);
+            PostingList list = postings.get(key);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    // Find IDs (ascending) whose text contains query, ignoring case
+    public int[] search(String query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        String lower = query.toLowerCase();
+        if (lower.length() < GRAM_LENGTH) {
+            return scan(allIds, lower);
+        }
+
+        // Collect the posting list of every trigram in the query
+        int gramCount = lower.length() - GRAM_LENGTH + 1;
+        PostingList[] lists = new PostingList[gramCount];
+        for (int i = 0; i < gramCount; i++) {
+            lists[i] = postings.get(gram(lower, i));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+
+        // Intersect starting from the shortest list
+        PostingList shortest = lists[0];
+        for (PostingList list : lists) {
+            if (list.size() < shortest.size()) {
+                shortest = list;
+            }
+        }
+        int[] cursors = new int[gramCount];
+        int[] result = new int[shortest.size()];
+        int count = 0;
+        for (int p = shortest.next(-1); p < shortest.limit(); p = shortest.next(p)) {
+            int id = shortest.get(p);
+            if (inAll(lists, cursors, shortest, id) && texts.get(id).contains(lower)) {
+                result[count++] = id; // Verify: trigram keys may collide
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Get number of indexed IDs
+    public int size() {
+        return allIds.size();
+    }
+
+    // Check that id is in every list, advancing each cursor monotonically
+    private static boolean inAll(PostingList[] lists, int[] cursors, PostingList skip, int id) {
+        for (int j = 0; j < lists.length; j++) {
+            PostingList list = lists[j];
+            if (list == skip) {
+                continue;
+            }
+            cursors[j] = list.seek(id, cursors[j]);
+            if (cursors[j] == list.limit() || list.get(cursors[j]) != id) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Linear check over candidate IDs (queries shorter than a trigram)
+    private int[] scan(PostingList candidates, String lower) {
+        int[] result = new int[candidates.size()];
+        int count = 0;
+        for (int p = candidates.next(-1); p < candidates.limit(); p = candidates.next(p)) {
+            int id = candidates.get(p);
+            if (texts.get(id).contains(lower)) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Pack three chars into an int key (collisions only cause extra verification)
+    private static int gram(String s, int start) {
+        return (s.charAt(start) << 20) ^ (s.charAt(start + 1) << 10) ^ s.charAt(start + 2);
+    }
+}
@@ -0,0 +1,11 @@
+package interfaces;
+
+import models.Book;
+
+// Read-only set of books that can be looked up before it is loaded in full (e.g. a mapped snapshot).
+// Lookups of the same ID must return the same instance.
+public interface IBookSource {
+    int size();
+    Book findBookById(int bookId); // Null if absent
+    Book[] toArray(); // Every book, in ID order
+}
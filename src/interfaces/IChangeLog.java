@@ -0,0 +1,18 @@
+package interfaces;
+
+import models.Book;
+import models.Order;
+import models.enums.OrderStatus;
+
+// Receives every catalog and order mutation, e.g. to make it durable. Callers report a change
+// before applying it (or undo it if reporting throws), then call awaitDurable once they hold no locks.
+public interface IChangeLog {
+    void bookAdded(Book book);
+    void stockChanged(int bookId, int delta); // Summed per book on replay, so concurrent deltas may be reported in any order
+    void bookUpdated(int bookId, String title, String author, double price); // New title, author and price
+    void bookRemoved(int bookId);
+    void orderSubmitted(Order order); // Confirmed (stock reserved) or cancelled
+    void orderStatusChanged(int orderId, OrderStatus status, boolean requeued); // requeued: moved to the active tail
+    void orderCompleted(int orderId); // Moved to the completed queue
+    void awaitDurable(); // Block until the changes this thread reported are durable (if the log promises that)
+}
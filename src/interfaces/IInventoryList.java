@@ -11,4 +11,5 @@ public interface IInventoryList<E> {
     int getQuantities(E book);
     int indexOf(E book);
     boolean contains(E book);
+    void ensureCapacity(int minCapacity); // Pre-size for bulk loads
 }
@@ -1,9 +1,12 @@
 package interfaces;
 
+import java.util.function.Consumer;
+
 public interface IOrderQueue<E> {
     void offer(E element);
     E poll();
     E peek();
     int size();
     boolean isEmpty();
+    void forEach(Consumer<? super E> action); // Visit elements front to back
 }
@@ -0,0 +1,9 @@
+package interfaces;
+
+import models.Book;
+
+// Notified when a book's stock crosses the reorder threshold, on the thread that changed it
+public interface IStockListener {
+    void lowStock(Book book, int quantity); // Fell below the threshold
+    void restocked(Book book, int quantity); // Back at or above the threshold
+}
@@ -1,13 +1,20 @@
 package menu;
 
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 import algorithms.SortAlgorithm.SortBy;
+import data.CatalogImporter;
 import models.Book;
 import models.Order;
-// import models.enums.OrderStatus;
+import models.enums.OrderStatus;
 import services.BookService;
+import services.FulfillmentPipeline;
 import services.OrderService;
+import services.StockMonitor;
 
 public class AdminMenu {
     private final BookService bookService; // Book service instance
@@ -66,7 +73,9 @@ public class AdminMenu {
             System.out.println("3. Update book details");
             System.out.println("4. Update book stock");
             System.out.println("5. Remove book");
-            System.out.println("6. Back to Admin Menu");
+            System.out.println("6. Import books from file");
+            System.out.println("7. Monitor stock levels");
+            System.out.println("8. Back to Admin Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -89,6 +98,13 @@ public class AdminMenu {
                         removeBook();
                         break;
                     case 6:
+                        importBooks();
+                        waitForKeyPress();
+                        break;
+                    case 7:
+                        monitorStock();
+                        break;
+                    case 8:
                         if (!mainMenu.getNavigationStack().isEmpty()) {
                             mainMenu.getNavigationStack().pop().run();
                         }
@@ -111,7 +127,9 @@ public class AdminMenu {
             System.out.println("3. View order details by ID");
             System.out.println("4. View active orders");
             System.out.println("5. View completed orders");
-            System.out.println("6. Back to Admin Menu");
+            System.out.println("6. Fulfill all active orders");
+            System.out.println("7. View order status dashboard");
+            System.out.println("8. Back to Admin Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -137,6 +155,13 @@ public class AdminMenu {
                         waitForKeyPress();
                         break;
                     case 6:
+                        fulfillActiveOrders();
+                        waitForKeyPress();
+                        break;
+                    case 7:
+                        viewStatusDashboard();
+                        break;
+                    case 8:
                         if (!mainMenu.getNavigationStack().isEmpty()) {
                             mainMenu.getNavigationStack().pop().run();
                         }
@@ -150,6 +175,52 @@ public class AdminMenu {
         }
     }
 
+    // Import books from a CSV or TSV file (title, author, price, quantity)
+    private void importBooks() {
+        System.out.print("Enter file path (.csv or .tsv): ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            System.out.println("File path cannot be empty");
+            return;
+        }
+        try {
+            Path path = Paths.get(input);
+            CatalogImporter.ImportResult result = CatalogImporter.forFile(path).importInto(path, bookService);
+            System.out.println("Import complete: " + result);
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Error importing books: " + e.getMessage());
+        }
+    }
+
+    // Show books below the reorder threshold and optionally change the threshold
+    private void monitorStock() {
+        StockMonitor monitor = bookService.getStockMonitor();
+        Book[] lowStock = bookService.getLowStockBooks();
+        System.out.println("\nReorder threshold: " + monitor.getThreshold());
+        if (lowStock.length == 0) {
+            System.out.println("No books below the threshold");
+        } else {
+            System.out.println(lowStock.length + " book(s) below the threshold, lowest stock first:");
+            System.out.println(Book.getTableHeader());
+            for (Book book : lowStock) {
+                System.out.println(book);
+            }
+        }
+        System.out.print("Enter new threshold (or press Enter to keep): ");
+        String input = scanner.nextLine().trim();
+        if (!input.isEmpty()) {
+            try {
+                monitor.setThreshold(Integer.parseInt(input));
+                System.out.println("Threshold updated");
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a valid number for threshold.");
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
+            }
+        }
+        waitForKeyPress();
+    }
+
     // Add a new book to the inventory
     private void addNewBook() {
         try {
@@ -186,12 +257,11 @@ public class AdminMenu {
 
             Book book = bookService.findBookById(bookId);
             if (book != null) {
-                if (!title.isEmpty())
-                    book.setTitle(title);
-                if (!author.isEmpty())
-                    book.setAuthor(author);
-                if (price > 0)
-                    book.setPrice(price);
+                // Go through the service so its search indexes stay in sync
+                bookService.updateBookDetails(bookId,
+                        title.isEmpty() ? book.getTitle() : title,
+                        author.isEmpty() ? book.getAuthor() : author,
+                        price > 0 ? price : book.getPrice());
                 System.out.println("Book details updated successfully");
             } else {
                 System.out.println("Book not found");
@@ -244,6 +314,42 @@ public class AdminMenu {
         waitForKeyPress();
     }
 
+    // Run every active order through the fulfillment pipeline until delivered
+    private void fulfillActiveOrders() {
+        FulfillmentPipeline pipeline = new FulfillmentPipeline(orderService);
+        try {
+            long start = System.nanoTime();
+            pipeline.start();
+            int count = pipeline.dispatchActiveOrders();
+            pipeline.shutdown();
+            if (count == 0) {
+                System.out.println("No orders to process");
+                return;
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            System.out.printf("Fulfilled %d orders (%d delivered) in %.1f ms%n",
+                    count, pipeline.getDeliveredCount(), millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Error fulfilling orders: interrupted");
+        }
+    }
+
+    // Show order counts per status, then optionally list one status
+    private void viewStatusDashboard() {
+        orderService.displayStatusDashboard();
+        System.out.print("\nEnter a status to list its orders (or press Enter to skip): ");
+        String input = scanner.nextLine().trim();
+        if (!input.isEmpty()) {
+            try {
+                orderService.displayOrdersByStatus(OrderStatus.valueOf(input.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Unknown status: " + input);
+            }
+        }
+        waitForKeyPress();
+    }
+
     // View details of a specific order
     private void viewOrderDetails() {
         System.out.print("Enter order ID: ");
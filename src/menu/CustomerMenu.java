@@ -3,8 +3,10 @@ package menu;
 import services.BookService;
 import services.OrderService;
 import algorithms.SortAlgorithm.SortBy;
+import algorithms.SortSpec;
 import models.Book;
 import models.Order;
+import models.enums.OrderPriority;
 
 import java.util.Scanner;
 
@@ -14,6 +16,8 @@ public class CustomerMenu {
     private final OrderService orderService;
     private final Scanner scanner;
     private final MainMenu mainMenu;
+    private static final int PAGE_SIZE = 20; // Books per page when browsing
+    private static final int SUGGESTION_COUNT = 5; // Title completions offered when searching
 
     public CustomerMenu(BookService bookService, OrderService orderService, MainMenu mainMenu) {
         this.bookService = bookService;
@@ -31,14 +35,14 @@ public class CustomerMenu {
             System.out.println("3. Sort book");
             System.out.println("4. Place order");
             System.out.println("5. Track order");
-            System.out.println("6. Back");
+            System.out.println("6. Filter books by price");
+            System.out.println("7. Back");
             System.out.print("Enter choice: ");
 
             String choice = scanner.nextLine();
             switch (choice) {
                 case "1":
-                    bookService.displayBooks(SortBy.ID);
-                    waitForKeyPress();
+                    browseBooks();
                     break;
                 case "2":
                     searchBooks();
@@ -53,6 +57,9 @@ public class CustomerMenu {
                     trackOrder();
                     break;
                 case "6":
+                    filterByPrice();
+                    break;
+                case "7":
                     if (!mainMenu.getNavigationStack().isEmpty()) {
                         mainMenu.getNavigationStack().pop().run();
                     }
@@ -63,12 +70,29 @@ public class CustomerMenu {
         }
     }
 
-    // Search books by title
+    // Show books one page at a time
+    private void browseBooks() {
+        int offset = 0;
+        while (bookService.displayBooks(SortBy.ID, offset, PAGE_SIZE)) {
+            offset += PAGE_SIZE;
+            System.out.print("Enter n for next page (or press Enter to stop): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("n")) {
+                return;
+            }
+        }
+        System.out.println(offset == 0 ? "No books in inventory" : "No more books");
+        waitForKeyPress();
+    }
+
+    // Search books by title; a term ending in ? first offers titles starting with it
     private void searchBooks() {
-        System.out.print("Enter search term: ");
-        String term = scanner.nextLine();
+        System.out.print("Enter search term (end with ? for suggestions): ");
+        String term = scanner.nextLine().trim();
 
         try {
+            if (term.endsWith("?")) {
+                term = chooseTitle(term.substring(0, term.length() - 1));
+            }
             Book[] results = bookService.findBooksByTitle(term);
             if (results.length == 0) {
                 System.out.println("No books found");
@@ -78,17 +102,69 @@ public class CustomerMenu {
                     System.out.println(book);
                 }
             }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input. Please enter a suggestion number.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+        waitForKeyPress();
+    }
+
+    // Offer the best-stocked titles starting with prefix; returns the chosen one, or prefix if none is chosen
+    private String chooseTitle(String prefix) {
+        String[] titles = bookService.suggestTitles(prefix, SUGGESTION_COUNT);
+        if (titles.length == 0) {
+            System.out.println("No suggestions for \"" + prefix + "\"");
+            return prefix;
+        }
+        System.out.println("Suggestions:");
+        for (int i = 0; i < titles.length; i++) {
+            System.out.println((i + 1) + ". " + titles[i]);
+        }
+        System.out.print("Choose a title (Enter to search for \"" + prefix + "\"): ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return prefix;
+        }
+        int choice = Integer.parseInt(input);
+        if (choice < 1 || choice > titles.length) {
+            throw new IllegalArgumentException("Invalid suggestion");
+        }
+        return titles[choice - 1];
+    }
+
+    // Show books within a price range, cheapest first
+    private void filterByPrice() {
+        try {
+            System.out.print("Enter minimum price: ");
+            double minPrice = Double.parseDouble(scanner.nextLine());
+            System.out.print("Enter maximum price: ");
+            double maxPrice = Double.parseDouble(scanner.nextLine());
+
+            Book[] results = bookService.findBooksByPriceRange(minPrice, maxPrice);
+            if (results.length == 0) {
+                System.out.println("No books found");
+            } else {
+                System.out.println(Book.getTableHeader());
+                for (Book book : results) {
+                    System.out.println(book);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input. Please enter valid numbers for price.");
         } catch (IllegalArgumentException e) {
             System.out.println("Error: " + e.getMessage());
         }
         waitForKeyPress();
     }
 
-    // Sort books by title or price
+    // Sort books by title, price or author
     private void sortBooks() {
         System.out.println("\nSort by:");
         System.out.println("1. Title");
         System.out.println("2. Price");
+        System.out.println("3. Author");
+        System.out.println("4. Price (high to low), then title");
         System.out.print("Enter choice: ");
 
         String sortChoice = scanner.nextLine();
@@ -99,6 +175,12 @@ public class CustomerMenu {
             case "2":
                 bookService.displayBooks(SortBy.PRICE);
                 break;
+            case "3":
+                bookService.displayBooks(SortBy.AUTHOR);
+                break;
+            case "4":
+                bookService.displayBooks(SortSpec.of(SortBy.PRICE, true).then(SortBy.TITLE, false));
+                break;
             default:
                 System.out.println("Invalid sort option");
         }
@@ -114,6 +196,7 @@ public class CustomerMenu {
             String address = scanner.nextLine();
 
             Order order = orderService.createOrder(name, address);
+            order.setPriority(readPriority());
             bookService.displayBooks(SortBy.ID);
 
             while (true) {
@@ -136,6 +219,7 @@ public class CustomerMenu {
                 orderService.submitOrder(order);
                 System.out.println("Order submitted successfully!");
                 System.out.println("Your order ID is: " + order.getOrderId());
+                System.out.println("Shipping priority: " + order.getPriority());
             } else {
                 System.out.println("Order cancelled - no books added");
             }
@@ -147,6 +231,25 @@ public class CustomerMenu {
         waitForKeyPress();
     }
 
+    // Ask for a shipping priority, standard if left blank
+    private OrderPriority readPriority() {
+        OrderPriority[] priorities = OrderPriority.values();
+        System.out.println("Shipping options:");
+        for (int i = 0; i < priorities.length; i++) {
+            System.out.println((i + 1) + ". " + priorities[i]);
+        }
+        System.out.print("Choose shipping option (Enter for STANDARD): ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return OrderPriority.STANDARD;
+        }
+        int choice = Integer.parseInt(input);
+        if (choice < 1 || choice > priorities.length) {
+            throw new IllegalArgumentException("Invalid shipping option");
+        }
+        return priorities[choice - 1];
+    }
+
     // Track order by ID
     private void trackOrder() {
         System.out.print("Enter order ID: ");
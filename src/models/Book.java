@@ -1,16 +1,54 @@
 package models;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
 // Represents a book in the bookstore system
 public class Book {
-    private static int counter = 1; // For unique book IDs
-    private int bookID;
-    private String title;
-    private String author;
-    private double price;
-    private int quantity;
-
-    // Constructor with validation
+    private static final AtomicInteger counter = new AtomicInteger(1); // For unique book IDs
+    private static final VarHandle QUANTITY; // CAS access to quantity
+    private final int bookID;
+    // Volatile so lock-free readers in BookService see the latest values
+    private volatile String title;
+    private volatile String author;
+    private volatile double price;
+    private volatile int quantity;
+
+    static {
+        try {
+            QUANTITY = MethodHandles.lookup().findVarHandle(Book.class, "quantity", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Constructor with validation; an ID is only taken once the arguments are valid
     public Book(String title, String author, double price, int quantity) {
+        this(nextId(title, author, price, quantity), title, author, price, quantity);
+    }
+
+    // Constructor keeping an existing ID (e.g. when restoring from storage); later IDs continue after it
+    public Book(int bookID, String title, String author, double price, int quantity) {
+        if (bookID <= 0) {
+            throw new IllegalArgumentException("Book ID must be positive");
+        }
+        validate(title, author, price, quantity);
+        reserveId(bookID);
+        this.bookID = bookID;
+        this.title = title;
+        this.author = author;
+        this.price = price;
+        this.quantity = quantity;
+    }
+
+    // Validate the arguments, then hand out the next ID
+    private static int nextId(String title, String author, double price, int quantity) {
+        validate(title, author, price, quantity);
+        return counter.getAndIncrement();
+    }
+
+    private static void validate(String title, String author, double price, int quantity) {
         if (title == null || title.trim().isEmpty()) {
             throw new IllegalArgumentException("Title cannot be empty");
         }
@@ -23,11 +61,11 @@ public class Book {
         if (quantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
-        this.bookID = counter++;
-        this.title = title;
-        this.author = author;
-        this.price = price;
-        this.quantity = quantity;
+    }
+
+    // Make sure IDs handed out by the generating constructor come after bookID
+    public static void reserveId(int bookID) {
+        counter.accumulateAndGet(bookID + 1, Math::max);
     }
 
     // Getters and setters with validation
@@ -79,6 +117,22 @@ public class Book {
         this.quantity = quantity;
     }
 
+    // Atomically set quantity, returns the previous quantity
+    public int getAndSetQuantity(int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        return (int) QUANTITY.getAndSet(this, quantity);
+    }
+
+    // Atomically set quantity if it still equals expected
+    public boolean compareAndSetQuantity(int expected, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        return QUANTITY.compareAndSet(this, expected, quantity);
+    }
+
     // Returns "Out of Stock" if quantity is 0, otherwise returns quantity as string
     public String getDisplayQuantity() {
         if (quantity > 0) {
@@ -88,6 +142,23 @@ public class Book {
         }
     }
 
+    // Books are identified by their unique ID
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Book)) {
+            return false;
+        }
+        return bookID == ((Book) obj).bookID;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(bookID);
+    }
+
     // Returns formatted string representation of book
     @Override
     public String toString() {
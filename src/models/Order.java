@@ -1,37 +1,62 @@
 package models;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import data_structures.InventoryItem;
 import data_structures.InventoryList;
+import data_structures.OrderStatusBuckets;
 import interfaces.IInventoryList;
+import models.enums.OrderPriority;
 import models.enums.OrderStatus;
 
 // Basic order class for bookstore system
 public class Order {
-    private static int counter = 1;
-    private int orderID;
+    private static final AtomicInteger counter = new AtomicInteger(1); // For unique order IDs
+    private final int orderID;
     private String customerName;
     private String shippingAddress;
     private IInventoryList<Book> books; // Book and quantity pairs
     private double totalPrice;
-    private OrderStatus status;
+    private volatile OrderStatus status; // Read by fulfillment workers
+    private volatile OrderPriority priority; // Read when the order is queued
     public Order next;
+    private volatile OrderStatusBuckets statusBuckets; // Told of every status change (null: none)
 
     // Constructor
     public Order(String customerName, String shippingAddress) {
-        if (customerName == null || customerName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Customer name cannot be empty");
-        }
-        if (shippingAddress == null || shippingAddress.trim().isEmpty()) {
-            throw new IllegalArgumentException("Shipping address cannot be empty");
+        this(nextId(customerName, shippingAddress), customerName, shippingAddress);
+    }
+
+    // Constructor keeping an existing ID (e.g. when restoring from storage); later IDs continue after it
+    public Order(int orderID, String customerName, String shippingAddress) {
+        if (orderID <= 0) {
+            throw new IllegalArgumentException("Order ID must be positive");
         }
-        this.orderID = counter++;
+        validate(customerName, shippingAddress);
+        counter.accumulateAndGet(orderID + 1, Math::max);
+        this.orderID = orderID;
         this.customerName = customerName;
         this.shippingAddress = shippingAddress;
         this.books = new InventoryList<>();
         this.status = OrderStatus.PENDING;
+        this.priority = OrderPriority.STANDARD;
         this.totalPrice = 0.0;
     }
 
+    // Validate the arguments, then hand out the next ID
+    private static int nextId(String customerName, String shippingAddress) {
+        validate(customerName, shippingAddress);
+        return counter.getAndIncrement();
+    }
+
+    private static void validate(String customerName, String shippingAddress) {
+        if (customerName == null || customerName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Customer name cannot be empty");
+        }
+        if (shippingAddress == null || shippingAddress.trim().isEmpty()) {
+            throw new IllegalArgumentException("Shipping address cannot be empty");
+        }
+    }
+
     // Getters and Setters
     public int getOrderId() { return orderID; }
     public String getCustomerName() { return customerName; }
@@ -39,8 +64,30 @@ public class Order {
     public IInventoryList<Book> getBooks() { return books; }
     public double getTotalPrice() { return totalPrice; }
     public OrderStatus getStatus() { return status; }
-    public void setStatus(OrderStatus status) { this.status = status; }
+    public OrderPriority getPriority() { return priority; }
     public Order getNext() { return next; }
+    public OrderStatusBuckets getStatusBuckets() { return statusBuckets; }
+    public void setStatusBuckets(OrderStatusBuckets statusBuckets) { this.statusBuckets = statusBuckets; }
+
+    // Set status and move the order to that status list, if it is in buckets
+    public void setStatus(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        this.status = status;
+        OrderStatusBuckets buckets = statusBuckets;
+        if (buckets != null) {
+            buckets.statusChanged(this);
+        }
+    }
+
+    // Set priority class; a queued order keeps its place until it is queued again
+    public void setPriority(OrderPriority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority cannot be null");
+        }
+        this.priority = priority;
+    }
 
     // Add book to order
     public void addBook(Book book, int quantity) {
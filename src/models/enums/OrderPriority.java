@@ -0,0 +1,7 @@
+package models.enums;
+
+public enum OrderPriority {
+    STANDARD, // regular shipping, served in arrival order
+    EXPRESS, // expedited shipping, served ahead of standard orders
+    VIP // priority customers, served ahead of express orders
+}
@@ -1,22 +1,96 @@
 package services;
 
-import algorithms.SearchAlgorithm;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import algorithms.MultiKeySort;
 import algorithms.SortAlgorithm;
+import algorithms.SortSpec;
 import algorithms.SortAlgorithm.SortBy;
+import data_structures.BoundedHeap;
+import data_structures.ColumnarCatalog;
+import data_structures.IntHashMap;
+import data_structures.SortedIndex;
+import data_structures.StockRangeIndex;
 import data_structures.InventoryItem;
-import data_structures.InventoryList;
+import data_structures.TernarySearchTree;
+import data_structures.TrigramIndex;
+import interfaces.IBookSource;
+import interfaces.IChangeLog;
+import interfaces.IInventoryList;
 import models.Book;
+import models.Order;
 
-// Manages book inventory operations
+// Manages book inventory operations.
+// Thread-safe: ID lookups are lock-free (optimistic reads), other reads share a read lock,
+// catalog changes take the write lock, and per-book stock changes use striped locks.
+// Every committed change is reported to the change log, if one is set; order reservations
+// (reserveStock, reserveUpTo, releaseStock of a book) are recorded by OrderService with the order.
+// A catalog can start from an attached book source (e.g. a mapped snapshot): ID lookups are
+// answered from it straight away, and the indexes are built on the first call that needs them.
 public class BookService {
-    private InventoryList<Book> inventoryList;
+    private static final int DEFAULT_LOCK_STRIPES = 64;
+
+    private IInventoryList<Book> inventoryList;
+    private IntHashMap<Book> bookIndex; // Book ID -> book, kept in sync on add/remove
+    private TrigramIndex titleIndex; // Title trigrams -> book IDs
+    private TernarySearchTree titleTrie; // Title prefixes for autocomplete
+    private TernarySearchTree authorTrie; // Author prefixes for autocomplete
+    private SortedIndex<Book>[] sortedViews; // Ordered index per SortBy ordinal (none for STOCK)
+    private ColumnarCatalog columns; // Price, stock and author columns for filter/aggregate scans
+    private final StockRangeIndex stockIndex; // Books by stock; has its own lock, repaired lazily
+    private final StockMonitor stockMonitor; // Low-stock heap and threshold events; has its own lock
+    private final StampedLock catalogLock; // Guards the inventory list and every index above
+    private final ReentrantLock[] stockLocks; // Striped by book ID, serialize per-book updates
+    private volatile IChangeLog changeLog; // Receives each change as it is made (null: none)
+    private volatile IBookSource pendingSource; // Attached books not yet indexed (null: none)
 
     // Initialize with inventory list
-    public BookService(InventoryList<Book> inventoryList) {
+    public BookService(IInventoryList<Book> inventoryList) {
+        this(inventoryList, DEFAULT_LOCK_STRIPES);
+    }
+
+    // Initialize with inventory list and number of stock lock stripes (rounded up to a power of two)
+    public BookService(IInventoryList<Book> inventoryList, int lockStripes) {
         if (inventoryList == null) {
             throw new IllegalArgumentException("Inventory list cannot be null");
         }
+        if (lockStripes <= 0) {
+            throw new IllegalArgumentException("Lock stripes must be positive");
+        }
+        int stripes = 1;
+        while (stripes < lockStripes) {
+            stripes <<= 1;
+        }
+        this.catalogLock = new StampedLock();
+        this.stockLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            stockLocks[i] = new ReentrantLock();
+        }
         this.inventoryList = inventoryList;
+        this.bookIndex = new IntHashMap<>(inventoryList.size());
+        this.titleIndex = new TrigramIndex();
+        this.titleTrie = new TernarySearchTree();
+        this.authorTrie = new TernarySearchTree();
+        this.sortedViews = createSortedViews();
+        this.columns = new ColumnarCatalog(inventoryList.size());
+        this.stockIndex = new StockRangeIndex();
+        this.stockMonitor = new StockMonitor();
+        for (InventoryItem<Book> entry : inventoryList.getEntries()) {
+            Book book = entry.getBook();
+            bookIndex.put(book.getBookID(), book);
+            indexBook(book);
+        }
+    }
+
+    // Get the stock monitor (low-stock queries and reorder threshold events)
+    public StockMonitor getStockMonitor() {
+        return stockMonitor;
+    }
+
+    // Set the change log that receives every change (null to stop logging)
+    public void setChangeLog(IChangeLog changeLog) {
+        this.changeLog = changeLog;
     }
 
     // Add new book to inventory
@@ -35,31 +109,160 @@ public class BookService {
         }
 
         try {
-            Book book = new Book(title, author, price, quantity);
-            inventoryList.add(book, quantity);
+            long stamp = writeCatalog();
+            try {
+                Book book = new Book(title, author, price, quantity);
+                if (changeLog != null) {
+                    changeLog.bookAdded(book);
+                }
+                if (inventoryList.add(book, quantity)) {
+                    bookIndex.put(book.getBookID(), book);
+                    indexBook(book);
+                }
+            } finally {
+                catalogLock.unlockWrite(stamp);
+            }
+            awaitDurable();
         } catch (Exception e) {
             System.out.println("Error adding book to inventory: " + e.getMessage());
         }
     }
 
-    // Find book by ID
+    // Add many books with one pre-sizing step and one sorted-view merge per criterion,
+    // returns number added. Books whose ID is already in the catalog are skipped. If logging a
+    // book fails, the books before it stay added and are counted.
+    public int addBooks(Book[] books) {
+        if (books == null) {
+            throw new IllegalArgumentException("Books cannot be null");
+        }
+
+        int added = 0;
+        try {
+            long stamp = writeCatalog();
+            int before = bookIndex.size();
+            try {
+                insertBooks(books, true);
+            } finally {
+                added = bookIndex.size() - before;
+                catalogLock.unlockWrite(stamp);
+            }
+            awaitDurable();
+        } catch (Exception e) {
+            System.out.println("Error adding books to inventory: " + e.getMessage());
+        }
+        return added;
+    }
+
+    // Attach books to serve by ID at once and index later (they are not logged: the source is
+    // assumed durable already). Books whose ID is already in the catalog are ignored.
+    public void attachSource(IBookSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source cannot be null");
+        }
+        loadSource(); // At most one source is pending
+        long stamp = catalogLock.writeLock();
+        try {
+            pendingSource = source;
+        } finally {
+            catalogLock.unlockWrite(stamp);
+        }
+    }
+
+    // Index every book of the attached source, if any (e.g. from a background thread after startup)
+    public void loadSource() {
+        IBookSource source = pendingSource;
+        if (source == null) {
+            return;
+        }
+        Book[] books = source.toArray(); // Decode outside the lock; lookups are served meanwhile
+        long stamp = catalogLock.writeLock();
+        try {
+            if (pendingSource == source) {
+                insertBooks(books, false);
+                pendingSource = null;
+            }
+        } finally {
+            catalogLock.unlockWrite(stamp);
+        }
+    }
+
+    // Check whether an attached source is still waiting to be indexed
+    public boolean isSourcePending() {
+        return pendingSource != null;
+    }
+
+    // Bulk insert; caller must hold the write lock. If logging a book fails, the books before it
+    // stay added (and fully indexed) and the error is rethrown.
+    private int insertBooks(Book[] books, boolean log) {
+        inventoryList.ensureCapacity(inventoryList.size() + books.length);
+        columns.ensureCapacity(columns.size() + books.length);
+        bookIndex.ensureCapacity(bookIndex.size() + books.length);
+        Book[] added = new Book[books.length];
+        int count = 0;
+        try {
+            for (Book book : books) {
+                if (book == null || bookIndex.containsKey(book.getBookID())) {
+                    continue;
+                }
+                if (log && changeLog != null) {
+                    changeLog.bookAdded(book);
+                }
+                if (inventoryList.add(book, book.getQuantity())) {
+                    bookIndex.put(book.getBookID(), book);
+                    indexText(book);
+                    added[count++] = book;
+                }
+            }
+        } finally {
+            indexAdded(added, count);
+        }
+        return count;
+    }
+
+    // Add the first count books of added to the sorted views, stock index and monitor
+    private void indexAdded(Book[] added, int count) {
+        if (count > 0) {
+            added = Arrays.copyOf(added, count);
+            for (SortBy sortBy : SortBy.values()) {
+                SortedIndex<Book> view = sortedViews[sortBy.ordinal()];
+                if (view != null) {
+                    Book[] sorted = added.clone();
+                    SortAlgorithm.parallelSort(sorted, sortBy);
+                    view.insertAll(sorted);
+                }
+            }
+            stockIndex.addAll(added);
+            stockMonitor.addAll(added);
+        }
+    }
+
+    // Find book by ID using the primary-key index (lock-free unless a catalog change is in progress)
     public Book findBookById(int bookId) {
         if (bookId <= 0) {
             throw new IllegalArgumentException("Book ID must be positive");
         }
-        try {
-            InventoryItem<Book>[] entries = inventoryList.getEntries();
-            Book[] books = convertToBookArray(entries);
-
-            SortAlgorithm.quickSort(books, SortBy.ID);
-            int index = SearchAlgorithm.binarySearchById(books, bookId);
-            if (index != -1) {
-                return books[index];
+        long stamp = catalogLock.tryOptimisticRead();
+        IBookSource source = null;
+        Book book = null;
+        if (stamp != 0) {
+            try {
+                source = pendingSource;
+                book = bookIndex.get(bookId);
+            } catch (RuntimeException e) {
+                stamp = 0; // Torn read during a concurrent resize; retry under the read lock
+            }
+        }
+        if (!catalogLock.validate(stamp)) {
+            stamp = catalogLock.readLock();
+            try {
+                source = pendingSource;
+                book = bookIndex.get(bookId);
+            } finally {
+                catalogLock.unlockRead(stamp);
             }
-        } catch (Exception e) {
-            System.out.println("Error finding book: " + e.getMessage());
         }
-        return null;
+        // Source and index were read together, so a book is never seen in neither
+        return book != null || source == null ? book : source.findBookById(bookId);
     }
 
     // Update book quantity
@@ -71,7 +274,19 @@ public class BookService {
         try {
             Book book = findBookById(bookId);
             if (book != null) {
-                book.setQuantity(quantity);
+                ReentrantLock lock = stockLock(bookId);
+                lock.lock();
+                try {
+                    // Applied as a logged delta; reservations racing with it are not lost. A removal
+                    // fails if a reservation took the stock meanwhile, so retry from the new level.
+                    int previous;
+                    do {
+                        previous = book.getQuantity();
+                    } while (previous != quantity && !changeStock(book, quantity - previous));
+                } finally {
+                    lock.unlock();
+                }
+                awaitDurable();
                 return true;
             }
         } catch (Exception e) {
@@ -80,6 +295,198 @@ public class BookService {
         return false;
     }
 
+    // Add delta to a book's stock (negative to remove), returns false if book missing or stock too low.
+    // Unlike updateStock, concurrent adjustments to the same book all count.
+    public boolean adjustStock(int bookId, int delta) {
+        try {
+            Book book = findBookById(bookId);
+            if (book != null && changeStock(book, delta)) {
+                awaitDurable();
+                return true;
+            }
+        } catch (Exception e) {
+            System.out.println("Error adjusting stock: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Atomically remove quantity from stock, returns false if book missing or stock too low
+    public boolean deductStock(int bookId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        Book book = findBookById(bookId);
+        if (book == null || !changeStock(book, -quantity)) {
+            return false;
+        }
+        awaitDurable();
+        return true;
+    }
+
+    // Reserve stock for every line item of an order, all or nothing.
+    // Items are taken in book ID order with CAS on each book's quantity, so no locks are held
+    // and concurrent reservations always contend in the same order. On failure, items already
+    // taken are returned and no stock changes.
+    public boolean reserveStock(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+
+        InventoryItem<Book>[] items = order.getBooks().getEntries().clone();
+        Arrays.sort(items, (a, b) -> Integer.compare(a.getBook().getBookID(), b.getBook().getBookID()));
+        int reserved = 0;
+        while (reserved < items.length && tryDeduct(items[reserved].getBook(), items[reserved].getQuantity())) {
+            reserved++;
+        }
+        if (reserved == items.length) {
+            return true;
+        }
+        for (int i = reserved - 1; i >= 0; i--) {
+            restock(items[i].getBook(), items[i].getQuantity());
+        }
+        return false;
+    }
+
+    // Return reserved stock for every line item of an order (e.g. when it is cancelled)
+    public void releaseStock(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+
+        for (InventoryItem<Book> item : order.getBooks().getEntries()) {
+            changeStock(item.getBook(), item.getQuantity());
+        }
+        awaitDurable();
+    }
+
+    // Take up to quantity copies of a book, returns the number actually taken
+    public int reserveUpTo(Book book, int quantity) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        while (true) {
+            int currentStock = book.getQuantity();
+            int taken = Math.min(currentStock, quantity);
+            if (taken == 0) {
+                return 0;
+            }
+            if (book.compareAndSetQuantity(currentStock, currentStock - taken)) {
+                syncStock(book, currentStock, currentStock - taken);
+                return taken;
+            }
+        }
+    }
+
+    // Return copies of a book taken with reserveUpTo
+    public void releaseStock(Book book, int quantity) {
+        if (book == null) {
+            throw new IllegalArgumentException("Book cannot be null");
+        }
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        if (quantity > 0) {
+            restock(book, quantity);
+        }
+    }
+
+    // CAS loop: subtract quantity unless stock would go negative
+    private boolean tryDeduct(Book book, int quantity) {
+        while (true) {
+            int currentStock = book.getQuantity();
+            if (currentStock < quantity) {
+                return false;
+            }
+            if (book.compareAndSetQuantity(currentStock, currentStock - quantity)) {
+                syncStock(book, currentStock, currentStock - quantity);
+                return true;
+            }
+        }
+    }
+
+    // CAS loop: add quantity back to stock
+    private void restock(Book book, int quantity) {
+        while (true) {
+            int currentStock = book.getQuantity();
+            if (book.compareAndSetQuantity(currentStock, currentStock + quantity)) {
+                syncStock(book, currentStock, currentStock + quantity);
+                return;
+            }
+        }
+    }
+
+    // Apply a logged stock change, returns false (nothing logged) if a removal exceeds the stock.
+    // Additions are logged first and then always succeed. Removals are taken first, like a
+    // reservation (so stock never goes negative), then logged; if logging fails, exactly the
+    // amount taken is put back and the error is rethrown.
+    private boolean changeStock(Book book, int delta) {
+        IChangeLog log = changeLog;
+        if (delta > 0) {
+            if (delta > Integer.MAX_VALUE - book.getQuantity()) {
+                throw new IllegalArgumentException("Stock cannot exceed " + Integer.MAX_VALUE);
+            }
+            if (log != null) {
+                log.stockChanged(book.getBookID(), delta);
+            }
+            restock(book, delta);
+            return true;
+        }
+        if (delta == 0) {
+            return true;
+        }
+        if (!tryDeduct(book, -delta)) {
+            return false;
+        }
+        if (log != null) {
+            try {
+                log.stockChanged(book.getBookID(), delta);
+            } catch (RuntimeException e) {
+                restock(book, -delta);
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    // Wait until the changes this thread logged are durable; call with no locks held
+    private void awaitDurable() {
+        IChangeLog log = changeLog;
+        if (log != null) {
+            log.awaitDurable();
+        }
+    }
+
+    // Propagate one stock change (previous -> current) to the scan columns, stock index and
+    // monitor. The columns are written under an optimistic read like findBookById; if a catalog
+    // change moved rows meanwhile, the row written and the book's row are redone under the read lock.
+    private void syncStock(Book book, int previous, int current) {
+        long stamp = catalogLock.tryOptimisticRead();
+        int row = -1;
+        if (stamp != 0) {
+            try {
+                row = columns.setQuantity(book);
+            } catch (RuntimeException e) {
+                stamp = 0; // Torn read during a concurrent resize
+            }
+        }
+        if (!catalogLock.validate(stamp)) {
+            stamp = catalogLock.readLock();
+            try {
+                columns.refreshRow(row);
+                columns.setQuantity(book);
+            } finally {
+                catalogLock.unlockRead(stamp);
+            }
+        }
+        stockIndex.markChanged(book);
+        stockMonitor.stockChanged(book, previous, current);
+    }
+
     // Check book availability
     public boolean isAvailable(int bookId, int requestedQuantity) {
         if (requestedQuantity <= 0) {
@@ -95,51 +502,330 @@ public class BookService {
         return false;
     }
 
-    // Search books by title
+    // Search books by title (case-insensitive substring) using the trigram index
     public Book[] findBooksByTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
             throw new IllegalArgumentException("Title cannot be empty");
         }
 
+        long stamp = readCatalog();
         try {
-            InventoryItem<Book>[] entries = inventoryList.getEntries();
-            Book[] books = convertToBookArray(entries);
-            return SearchAlgorithm.searchByTitle(books, title.trim());
+            int[] ids = titleIndex.search(title.trim());
+            Book[] books = new Book[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                books[i] = bookIndex.get(ids[i]);
+            }
+            return books;
         } catch (Exception e) {
             System.out.println("Error finding books by title: " + e.getMessage());
+        } finally {
+            catalogLock.unlockRead(stamp);
         }
         return new Book[0];
     }
 
-    // Get all books sorted by criterion
+    // Suggest up to k titles starting with prefix (case-insensitive), most copies in stock first
+    public String[] suggestTitles(String prefix, int k) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        long stamp = readCatalog();
+        try {
+            return titleTrie.suggest(prefix.trim(), k, this::stockOf);
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Suggest up to k authors starting with prefix (case-insensitive), most copies in stock first
+    public String[] suggestAuthors(String prefix, int k) {
+        if (prefix == null) {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+        long stamp = readCatalog();
+        try {
+            return authorTrie.suggest(prefix.trim(), k, this::stockOf);
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Get up to k books with the lowest stock, lowest first (ties by ID)
+    public Book[] getLowestStock(int k) {
+        loadSource();
+        return stockMonitor.getLowestStock(k);
+    }
+
+    // Get books below the stock monitor's reorder threshold, lowest stock first
+    public Book[] getLowStockBooks() {
+        loadSource();
+        return stockMonitor.getLowStockBooks();
+    }
+
+    // Get books priced within [minPrice, maxPrice], cheapest first (ties by ID), in O(log n + k)
+    // using the price view
+    public Book[] findBooksByPriceRange(double minPrice, double maxPrice) {
+        if (Double.isNaN(minPrice) || Double.isNaN(maxPrice)) {
+            throw new IllegalArgumentException("Price must be a number");
+        }
+        if (minPrice < 0 || maxPrice < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+
+        long stamp = readCatalog();
+        try {
+            SortedIndex<Book> view = sortedViews[SortBy.PRICE.ordinal()];
+            int from = view.lowerBound(book -> book.getPrice() < minPrice ? -1 : 0);
+            int to = view.lowerBound(book -> book.getPrice() <= maxPrice ? -1 : 0);
+            Book[] books = new Book[Math.max(0, to - from)];
+            int[] count = {0};
+            if (books.length > 0) {
+                view.walk(from, book -> {
+                    books[count[0]++] = book;
+                    return count[0] < books.length;
+                });
+            }
+            return books;
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Get books with stock within [minQuantity, maxQuantity], lowest stock first (ties by ID),
+    // in O(log n + k) plus the stock changes made since the last query
+    public Book[] findBooksByStockRange(int minQuantity, int maxQuantity) {
+        if (minQuantity < 0 || maxQuantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative");
+        }
+        loadSource();
+        return stockIndex.range(minQuantity, maxQuantity);
+    }
+
+    // Get books priced within [minPrice, maxPrice] with at least minQuantity in stock, in no
+    // particular order (e.g. in-stock books under $30: filterBooks(0, 29.99, 1)).
+    // Scans the primitive price and stock columns rather than the Book objects.
+    public Book[] filterBooks(double minPrice, double maxPrice, int minQuantity) {
+        if (minPrice < 0 || maxPrice < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+
+        long stamp = readCatalog();
+        try {
+            int[] rows = columns.filter(ColumnarCatalog.toCents(minPrice), ColumnarCatalog.toCents(maxPrice),
+                    minQuantity);
+            Book[] books = new Book[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                books[i] = columns.getBook(rows[i]);
+            }
+            return books;
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Count books priced within [minPrice, maxPrice] with at least minQuantity in stock
+    public int countBooks(double minPrice, double maxPrice, int minQuantity) {
+        if (minPrice < 0 || maxPrice < 0) {
+            throw new IllegalArgumentException("Price cannot be negative");
+        }
+
+        long stamp = readCatalog();
+        try {
+            return columns.count(ColumnarCatalog.toCents(minPrice), ColumnarCatalog.toCents(maxPrice), minQuantity);
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Get books by author (exact match after trimming), in no particular order
+    public Book[] findBooksByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            throw new IllegalArgumentException("Author cannot be empty");
+        }
+
+        long stamp = readCatalog();
+        try {
+            int[] rows = columns.filterByAuthor(author.trim());
+            Book[] books = new Book[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                books[i] = columns.getBook(rows[i]);
+            }
+            return books;
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Get total value of the stock on hand (price times quantity over the catalog)
+    public double getStockValue() {
+        long stamp = readCatalog();
+        try {
+            return columns.stockValueCents() / 100.0;
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+    }
+
+    // Get all books sorted by criterion (in-order walk of the maintained view)
     public Book[] getAllBooks(SortBy sortBy) {
         if (sortBy == null) {
             throw new IllegalArgumentException("Sort type cannot be null");
         }
-        if (inventoryList.isEmpty()) {
-            return new Book[0];
+        if (sortedViews[sortBy.ordinal()] == null) {
+            // Stock changes too often to keep a view; sort on primitive keys instead
+            Book[] books = getAllBooks(SortBy.ID);
+            SortAlgorithm.keySort(books, sortBy);
+            return books;
         }
 
+        long stamp = readCatalog();
         try {
-            InventoryItem<Book>[] entries = inventoryList.getEntries();
-            Book[] books = convertToBookArray(entries);
-            SortAlgorithm.quickSort(books, sortBy);
-            return books;
+            SortedIndex<Book> view = sortedViews[sortBy.ordinal()];
+            return view.toArray(new Book[view.size()]);
         } catch (Exception e) {
             System.out.println("Error getting all books: " + e.getMessage());
+        } finally {
+            catalogLock.unlockRead(stamp);
         }
         return new Book[0];
     }
 
+    // Get one page of books sorted by criterion, without materializing the full listing
+    public Book[] getBooks(SortBy sortBy, int offset, int limit) {
+        if (sortBy == null) {
+            throw new IllegalArgumentException("Sort type cannot be null");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+
+        long stamp = readCatalog();
+        try {
+            SortedIndex<Book> view = sortedViews[sortBy.ordinal()];
+            if (view == null) {
+                // No maintained view: keep the first offset + limit books in a bounded heap
+                Book[] head = smallest(sortBy, (int) Math.min((long) offset + limit, Integer.MAX_VALUE), false);
+                if (offset >= head.length) {
+                    return new Book[0];
+                }
+                return Arrays.copyOfRange(head, offset, head.length);
+            }
+            if (offset >= view.size()) {
+                return new Book[0];
+            }
+            Book[] page = new Book[Math.min(limit, view.size() - offset)];
+            int[] count = {0};
+            view.walk(offset, book -> {
+                page[count[0]++] = book;
+                return count[0] < page.length;
+            });
+            return page;
+        } catch (Exception e) {
+            System.out.println("Error getting books: " + e.getMessage());
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+        return new Book[0];
+    }
+
+    // Get the first k in-stock books by criterion (e.g. the 10 cheapest available books)
+    public Book[] topK(SortBy sortBy, int k) {
+        if (sortBy == null) {
+            throw new IllegalArgumentException("Sort type cannot be null");
+        }
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+
+        long stamp = readCatalog();
+        try {
+            SortedIndex<Book> view = sortedViews[sortBy.ordinal()];
+            if (view == null) {
+                return smallest(sortBy, k, true);
+            }
+            // Walk the maintained view and stop after k matches
+            Book[] result = new Book[k];
+            int[] count = {0};
+            view.walk(0, book -> {
+                if (book.getQuantity() > 0) {
+                    result[count[0]++] = book;
+                }
+                return count[0] < k;
+            });
+            return Arrays.copyOf(result, count[0]);
+        } catch (Exception e) {
+            System.out.println("Error getting top books: " + e.getMessage());
+        } finally {
+            catalogLock.unlockRead(stamp);
+        }
+        return new Book[0];
+    }
+
+    // Select the k smallest books by criterion with a bounded heap: O(n log k) time, O(k) memory.
+    // Caller must hold the catalog read lock.
+    private Book[] smallest(SortBy sortBy, int k, boolean inStockOnly) {
+        BoundedHeap<Book> heap = new BoundedHeap<>(Math.max(1, Math.min(k, bookIndex.size())),
+                SortAlgorithm.comparator(sortBy));
+        bookIndex.forEachValue(book -> {
+            if (!inStockOnly || book.getQuantity() > 0) {
+                heap.offer(book);
+            }
+        });
+        return heap.drainSorted(new Book[heap.size()]);
+    }
+
+    // Get all books sorted by a composite specification (stable, ties in ID order)
+    public Book[] getAllBooks(SortSpec spec) {
+        if (spec == null) {
+            throw new IllegalArgumentException("Sort specification cannot be null");
+        }
+        Book[] books = getAllBooks(SortBy.ID);
+        try {
+            MultiKeySort.sort(books, spec);
+        } catch (Exception e) {
+            System.out.println("Error sorting books: " + e.getMessage());
+        }
+        return books;
+    }
+
     // Display all books
     public void displayBooks(SortBy sortBy) {
+        if (sortBy == null) {
+            throw new IllegalArgumentException("Sort type cannot be null");
+        }
+        displayBooks(getAllBooks(sortBy));
+    }
+
+    // Display one page of books, returns false if the page is empty
+    public boolean displayBooks(SortBy sortBy, int offset, int limit) {
+        Book[] page = getBooks(sortBy, offset, limit);
+        if (page.length == 0) {
+            return false;
+        }
+        displayBooks(page);
+        return true;
+    }
+
+    // Display all books sorted by a composite specification
+    public void displayBooks(SortSpec spec) {
+        if (spec == null) {
+            throw new IllegalArgumentException("Sort specification cannot be null");
+        }
+        displayBooks(getAllBooks(spec));
+    }
+
+    // Print books as a table
+    private void displayBooks(Book[] books) {
         try {
-            if (inventoryList.isEmpty()) {
+            if (books.length == 0) {
                 System.out.println("No books in inventory");
                 return;
             }
             System.out.println(Book.getTableHeader());
-            for (Book book : getAllBooks(sortBy)) {
+            for (Book book : books) {
                 System.out.println(book);
             }
         } catch (Exception e) {
@@ -154,11 +840,23 @@ public class BookService {
         }
 
         try {
-            Book book = findBookById(bookId);
-            if (book != null) {
+            long stamp = writeCatalog();
+            try {
+                Book book = bookIndex.get(bookId);
+                if (book == null) {
+                    return false;
+                }
+                if (changeLog != null) {
+                    changeLog.bookRemoved(bookId);
+                }
                 inventoryList.remove(book);
-                return true;
+                bookIndex.remove(bookId);
+                unindexBook(book);
+            } finally {
+                catalogLock.unlockWrite(stamp);
             }
+            awaitDurable();
+            return true;
         } catch (Exception e) {
             System.out.println("Error removing book: " + e.getMessage());
         }
@@ -181,25 +879,103 @@ public class BookService {
         }
 
         try {
-            Book book = findBookById(bookId);
-            if (book != null) {
+            ReentrantLock lock = stockLock(bookId);
+            lock.lock();
+            long stamp = writeCatalog();
+            try {
+                Book book = bookIndex.get(bookId);
+                if (book == null) {
+                    return false;
+                }
+                if (changeLog != null) {
+                    changeLog.bookUpdated(bookId, title.trim(), author.trim(), price);
+                }
+                unindexBook(book);
                 book.setTitle(title.trim());
                 book.setAuthor(author.trim());
                 book.setPrice(price);
-                return true;
+                indexBook(book);
+            } finally {
+                catalogLock.unlockWrite(stamp);
+                lock.unlock();
             }
+            awaitDurable();
+            return true;
         } catch (Exception e) {
             System.out.println("Error updating book details: " + e.getMessage());
         }
         return false;
     }
 
-    // Convert inventory items to book array
-    private Book[] convertToBookArray(InventoryItem<Book>[] entries) {
-        Book[] books = new Book[entries.length];
-        for (int i = 0; i < entries.length; i++) {
-            books[i] = entries[i].getBook();
+    // Get stock of book with ID, or 0 if it is not in the catalog; caller must hold the catalog lock
+    private long stockOf(int bookId) {
+        Book book = bookIndex.get(bookId);
+        return book == null ? 0 : book.getQuantity();
+    }
+
+    // Acquire the catalog read lock once every attached book is indexed
+    private long readCatalog() {
+        loadSource();
+        return catalogLock.readLock();
+    }
+
+    // Acquire the catalog write lock once every attached book is indexed
+    private long writeCatalog() {
+        loadSource();
+        return catalogLock.writeLock();
+    }
+
+    // Get the stripe lock guarding a book's mutable fields
+    private ReentrantLock stockLock(int bookId) {
+        int h = bookId * 0x9E3779B9;
+        return stockLocks[(h ^ (h >>> 16)) & (stockLocks.length - 1)];
+    }
+
+    // Create an empty ordered view for every sort criterion except STOCK
+    @SuppressWarnings("unchecked")
+    private static SortedIndex<Book>[] createSortedViews() {
+        SortBy[] criteria = SortBy.values();
+        SortedIndex<Book>[] views = (SortedIndex<Book>[]) new SortedIndex<?>[criteria.length];
+        for (SortBy sortBy : criteria) {
+            if (sortBy != SortBy.STOCK) {
+                views[sortBy.ordinal()] = new SortedIndex<>(SortAlgorithm.comparator(sortBy));
+            }
         }
-        return books;
+        return views;
+    }
+
+    // Add book to the secondary indexes (text search and sorted views)
+    private void indexBook(Book book) {
+        indexText(book);
+        for (SortedIndex<Book> view : sortedViews) {
+            if (view != null) {
+                view.insert(book);
+            }
+        }
+        stockIndex.add(book);
+        stockMonitor.add(book);
+    }
+
+    // Add book to the title search index, autocomplete tries and scan columns
+    private void indexText(Book book) {
+        titleIndex.add(book.getBookID(), book.getTitle());
+        titleTrie.add(book.getTitle(), book.getBookID());
+        authorTrie.add(book.getAuthor(), book.getBookID());
+        columns.add(book);
+    }
+
+    // Remove book from the secondary indexes; call before changing its title, author or price
+    private void unindexBook(Book book) {
+        titleIndex.remove(book.getBookID());
+        titleTrie.remove(book.getTitle(), book.getBookID());
+        authorTrie.remove(book.getAuthor(), book.getBookID());
+        columns.remove(book.getBookID());
+        for (SortedIndex<Book> view : sortedViews) {
+            if (view != null) {
+                view.remove(book);
+            }
+        }
+        stockIndex.remove(book);
+        stockMonitor.remove(book);
     }
 }
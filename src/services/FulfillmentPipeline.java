@@ -0,0 +1,247 @@
+package services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import models.Order;
+import models.enums.OrderStatus;
+
+// Staged order fulfillment: one stage per status transition (CONFIRMED -> SHIPPING -> DELIVERED).
+// Each stage has its own bounded queue and worker pool; a full queue blocks the stage feeding it,
+// so a slow stage throttles the ones before it instead of buffering without limit.
+public class FulfillmentPipeline {
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    // One status transition with its inbox and workers
+    private class Stage {
+        private final OrderStatus from;
+        private final OrderStatus to;
+        private final BlockingQueue<Order> inbox;
+        private final Thread[] workers;
+        private final AtomicLong processed;
+
+        private Stage(OrderStatus from, OrderStatus to, int workerCount, int queueCapacity) {
+            this.from = from;
+            this.to = to;
+            this.inbox = new ArrayBlockingQueue<>(queueCapacity);
+            this.workers = new Thread[workerCount];
+            this.processed = new AtomicLong();
+            for (int i = 0; i < workerCount; i++) {
+                workers[i] = threadFactory.newThread(this::work);
+            }
+        }
+
+        // Worker loop: advance each order and hand it to the next stage
+        private void work() {
+            while (true) {
+                Order order;
+                try {
+                    order = inbox.take();
+                } catch (InterruptedException e) {
+                    return; // Shutdown
+                }
+                try {
+                    if (orderService.advanceOrder(order, from, to)) {
+                        processed.incrementAndGet();
+                    }
+                    route(order);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.out.println("Error processing order #" + order.getOrderId() + ": interrupted");
+                    giveBack(order);
+                    return;
+                } catch (Exception e) {
+                    System.out.println("Error processing order #" + order.getOrderId() + ": " + e.getMessage());
+                    giveBack(order);
+                }
+            }
+        }
+    }
+
+    private final OrderService orderService;
+    private final ThreadFactory threadFactory;
+    private final Stage shipping; // CONFIRMED -> SHIPPING
+    private final Stage delivery; // SHIPPING -> DELIVERED
+    private final AtomicInteger inFlight; // Orders submitted but not yet completed
+    private final AtomicLong completed;
+    private final Object idleMonitor;
+    private boolean started;
+
+    // Initialize with one worker per processor in each stage
+    public FulfillmentPipeline(OrderService orderService) {
+        this(orderService, Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, null);
+    }
+
+    // Initialize with worker counts, per-stage queue capacity and thread factory
+    // (null for daemon platform threads, or virtualThreadFactory())
+    public FulfillmentPipeline(OrderService orderService, int shippingWorkers, int deliveryWorkers,
+            int queueCapacity, ThreadFactory threadFactory) {
+        if (orderService == null) {
+            throw new IllegalArgumentException("Order service cannot be null");
+        }
+        if (shippingWorkers <= 0 || deliveryWorkers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.orderService = orderService;
+        this.threadFactory = threadFactory != null ? threadFactory : platformThreadFactory();
+        this.shipping = new Stage(OrderStatus.CONFIRMED, OrderStatus.SHIPPING, shippingWorkers, queueCapacity);
+        this.delivery = new Stage(OrderStatus.SHIPPING, OrderStatus.DELIVERED, deliveryWorkers, queueCapacity);
+        this.inFlight = new AtomicInteger();
+        this.completed = new AtomicLong();
+        this.idleMonitor = new Object();
+        this.started = false;
+    }
+
+    // Thread factory for virtual threads on Java 21 or later; on older versions prints a message
+    // and falls back to daemon platform threads
+    public static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads require Java 21 or later; using platform threads");
+            return platformThreadFactory();
+        }
+    }
+
+    // Start all stage workers
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        started = true;
+        for (Stage stage : new Stage[] { shipping, delivery }) {
+            for (Thread worker : stage.workers) {
+                worker.start();
+            }
+        }
+    }
+
+    // Feed an order taken from the active queue into the stage for its status (blocks while that
+    // stage is full). If it cannot be routed (e.g. interrupted while waiting), the order goes back
+    // to the active queue and the error is rethrown.
+    public void submit(Order order) throws InterruptedException {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        inFlight.incrementAndGet();
+        try {
+            route(order);
+        } catch (InterruptedException | RuntimeException e) {
+            giveBack(order);
+            throw e;
+        }
+    }
+
+    // Move every order currently in the active queue into the pipeline, returns number dispatched
+    public int dispatchActiveOrders() throws InterruptedException {
+        int count = 0;
+        Order order;
+        while ((order = orderService.takeActiveOrder()) != null) {
+            submit(order);
+            count++;
+        }
+        return count;
+    }
+
+    // Wait until every submitted order is completed, returns false on timeout
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (idleMonitor) {
+            while (inFlight.get() > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(idleMonitor, remaining);
+            }
+        }
+        return true;
+    }
+
+    // Wait for submitted orders to complete, then stop all workers
+    public void shutdown() throws InterruptedException {
+        awaitIdle(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        for (Stage stage : new Stage[] { shipping, delivery }) {
+            for (Thread worker : stage.workers) {
+                worker.interrupt();
+            }
+        }
+        for (Stage stage : new Stage[] { shipping, delivery }) {
+            for (Thread worker : stage.workers) {
+                worker.join();
+            }
+        }
+    }
+
+    // Get number of orders moved to the completed queue
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    // Get number of orders moved to SHIPPING
+    public long getShippedCount() {
+        return shipping.processed.get();
+    }
+
+    // Get number of orders moved to DELIVERED
+    public long getDeliveredCount() {
+        return delivery.processed.get();
+    }
+
+    // Send order to the stage for its current status, or complete it if no transition is left
+    private void route(Order order) throws InterruptedException {
+        switch (order.getStatus()) {
+            case CONFIRMED:
+                shipping.inbox.put(order);
+                break;
+            case SHIPPING:
+                delivery.inbox.put(order);
+                break;
+            default:
+                orderService.completeOrder(order);
+                completed.incrementAndGet();
+                finished();
+                break;
+        }
+    }
+
+    // Return an order that failed mid-pipeline to the active queue (its stock stays reserved for
+    // it), so it is not lost, then stop counting it as in flight
+    private void giveBack(Order order) {
+        try {
+            orderService.restoreOrder(order, false);
+            System.out.println("Order #" + order.getOrderId() + " returned to the active queue");
+        } catch (RuntimeException e) {
+            System.out.println("Error returning order #" + order.getOrderId() + ": " + e.getMessage());
+        } finally {
+            finished();
+        }
+    }
+
+    // Mark one order as no longer in flight and wake idle waiters
+    private void finished() {
+        if (inFlight.decrementAndGet() == 0) {
+            synchronized (idleMonitor) {
+                idleMonitor.notifyAll();
+            }
+        }
+    }
+
+    // Daemon platform threads named by stage order
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, "fulfillment-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,25 +1,75 @@
 package services;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import data_structures.IntHashMap;
 import data_structures.InventoryItem;
 import data_structures.OrderQueue;
+import data_structures.OrderStatusBuckets;
+import interfaces.IChangeLog;
+import interfaces.IOrderQueue;
 import models.Book;
 import models.Order;
 import models.enums.OrderStatus;
 
 // Manages order operations in the system
 public class OrderService {
-    private OrderQueue<Order> activeQueue; // Active orders queue
-    private OrderQueue<Order> completedQueue; // Completed orders queue
+    private IOrderQueue<Order> activeQueue; // Active orders queue
+    private IOrderQueue<Order> completedQueue; // Completed orders queue
     private BookService bookService; // Book management service
+    private IntHashMap<OrderLocation> orderIndex; // Order ID -> order and its current queue
+    private final ReentrantLock orderLock; // Guards both queues and the order index
+    private final OrderStatusBuckets statusBuckets; // Every submitted order, listed by its current status
+    private volatile IChangeLog changeLog; // Receives submissions and transitions before they are made (null: none)
+
+    // Batch demand for one book: total requested and copies reserved but not yet assigned
+    private static class BookDemand {
+        private final Book book;
+        private int requested;
+        private int available;
+
+        private BookDemand(Book book) {
+            this.book = book;
+        }
+    }
+
+    // Index entry: an order and the queue it is currently in
+    private static class OrderLocation {
+        private final Order order;
+        private IOrderQueue<Order> queue;
+
+        private OrderLocation(Order order, IOrderQueue<Order> queue) {
+            this.order = order;
+            this.queue = queue;
+        }
+    }
 
     // Initialize with BookService
     public OrderService(BookService bookService) {
+        this(bookService, new OrderQueue<>(), new OrderQueue<>());
+    }
+
+    // Initialize with BookService and queue implementations
+    public OrderService(BookService bookService, IOrderQueue<Order> activeQueue, IOrderQueue<Order> completedQueue) {
         if (bookService == null) {
             throw new IllegalArgumentException("Book service cannot be null");
         }
-        this.activeQueue = new OrderQueue<>();
-        this.completedQueue = new OrderQueue<>();
+        if (activeQueue == null || completedQueue == null) {
+            throw new IllegalArgumentException("Order queues cannot be null");
+        }
+        this.activeQueue = activeQueue;
+        this.completedQueue = completedQueue;
         this.bookService = bookService;
+        this.orderIndex = new IntHashMap<>();
+        this.orderLock = new ReentrantLock();
+        this.statusBuckets = new OrderStatusBuckets();
+    }
+
+    // Set the change log that receives every submission and transition (null to stop logging).
+    // Changes are logged before the order becomes visible in a queue.
+    public void setChangeLog(IChangeLog changeLog) {
+        this.changeLog = changeLog;
     }
 
     // Create new order
@@ -57,97 +107,362 @@ public class OrderService {
         return false;
     }
 
-    // Find order in specified queue
-    private Order findOrderInQueue(OrderQueue<Order> queue, int orderId) {
-        OrderQueue<Order> tempQueue = new OrderQueue<>();
-        Order foundOrder = null;
+    // Find order by ID using the order index
+    public Order findOrderById(int orderId) {
+        if (orderId <= 0) {
+            throw new IllegalArgumentException("Order ID must be positive");
+        }
 
+        orderLock.lock();
         try {
-            while (!queue.isEmpty()) {
-                Order order = queue.poll();
-                if (order.getOrderId() == orderId) {
-                    foundOrder = order;
-                }
-                tempQueue.offer(order);
-            }
-
-            while (!tempQueue.isEmpty()) {
-                queue.offer(tempQueue.poll());
-            }
-        } catch (Exception e) {
-            System.out.println("Error finding order: " + e.getMessage());
+            OrderLocation location = orderIndex.get(orderId);
+            return location == null ? null : location.order;
+        } finally {
+            orderLock.unlock();
         }
-        return foundOrder;
     }
 
-    // Search for order in both queues
-    public Order findOrderById(int orderId) {
+    // Find the queue (active or completed) an order is currently in
+    public IOrderQueue<Order> findOrderQueue(int orderId) {
         if (orderId <= 0) {
             throw new IllegalArgumentException("Order ID must be positive");
         }
 
-        Order order = findOrderInQueue(activeQueue, orderId);
-        if (order == null) {
-            order = findOrderInQueue(completedQueue, orderId);
+        orderLock.lock();
+        try {
+            OrderLocation location = orderIndex.get(orderId);
+            return location == null ? null : location.queue;
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    // Offer order to queue and record its location in the index
+    private void enqueue(IOrderQueue<Order> queue, Order order) {
+        orderLock.lock();
+        try {
+            queue.offer(order);
+            OrderLocation location = orderIndex.get(order.getOrderId());
+            if (location == null) {
+                orderIndex.put(order.getOrderId(), new OrderLocation(order, queue));
+                statusBuckets.add(order); // Follows every later status change by itself
+            } else {
+                location.queue = queue;
+            }
+        } finally {
+            orderLock.unlock();
         }
-        return order;
     }
 
-    // Submit order to queue
+    // Submit order to queue; stock for all items is reserved atomically or the order is cancelled
     public void submitOrder(Order order) {
         if (!isValidOrder(order)) {
             throw new IllegalArgumentException("Invalid order!");
         }
 
         try {
-            if (!validateInventory(order)) {
+            if (!bookService.reserveStock(order)) {
                 order.setStatus(OrderStatus.CANCELLED);
-                completedQueue.offer(order);
+                logSubmitted(order);
+                enqueue(completedQueue, order);
+                awaitDurable();
+                return;
             }
 
-            updateInventoryStock(order);
             order.setStatus(OrderStatus.CONFIRMED);
-            activeQueue.offer(order);
+            try {
+                logSubmitted(order);
+            } catch (RuntimeException e) {
+                // Not logged, so not submitted: return the reservation (unlogged, like reserveStock)
+                for (InventoryItem<Book> item : order.getBooks().getEntries()) {
+                    bookService.releaseStock(item.getBook(), item.getQuantity());
+                }
+                throw e;
+            }
+            enqueue(activeQueue, order);
+            awaitDurable();
         } catch (Exception e) {
+            System.out.println("Error submitting order: " + e.getMessage());
         }
     }
 
+    // Submit a batch of orders, returns per-order results (true = confirmed, false = cancelled, or
+    // left PENDING because logging failed, which stops the batch).
+    // Demand is summed per book and each book's stock is reserved once for the whole batch; orders
+    // are then accepted greedily in iteration order, exactly as submitting them one by one would.
+    // Cost is O(total line items) plus one stock update per distinct book.
+    public boolean[] submitOrders(Collection<Order> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Orders cannot be null");
+        }
+        for (Order order : orders) {
+            if (!isValidOrder(order)) {
+                throw new IllegalArgumentException("Invalid order!");
+            }
+        }
+
+        // Aggregate demand per book, remembering each line's demand entry so later passes need no lookups
+        IntHashMap<BookDemand> demands = new IntHashMap<>();
+        int[] lineEnd = new int[orders.size()];
+        BookDemand[] lineDemand = new BookDemand[16];
+        int[] lineQuantity = new int[16];
+        int lines = 0;
+        int index = 0;
+        for (Order order : orders) {
+            for (InventoryItem<Book> item : order.getBooks().getEntries()) {
+                Book book = item.getBook();
+                BookDemand demand = demands.get(book.getBookID());
+                if (demand == null) {
+                    demand = new BookDemand(book);
+                    demands.put(book.getBookID(), demand);
+                }
+                demand.requested += item.getQuantity();
+                if (lines == lineDemand.length) {
+                    lineDemand = Arrays.copyOf(lineDemand, lines * 2);
+                    lineQuantity = Arrays.copyOf(lineQuantity, lines * 2);
+                }
+                lineDemand[lines] = demand;
+                lineQuantity[lines] = item.getQuantity();
+                lines++;
+            }
+            lineEnd[index++] = lines;
+        }
+
+        // Reserve each book once, as much of the demand as is in stock
+        demands.forEachValue(demand -> demand.available = bookService.reserveUpTo(demand.book, demand.requested));
+
+        // Assign reserved stock to orders in turn
+        boolean[] results = new boolean[orders.size()];
+        index = 0;
+        int line = 0;
+        orderLock.lock();
+        try {
+            orderIndex.ensureCapacity(orderIndex.size() + orders.size());
+            for (Order order : orders) {
+                int end = lineEnd[index];
+                boolean accepted = true;
+                for (int i = line; i < end; i++) {
+                    if (lineDemand[i].available < lineQuantity[i]) {
+                        accepted = false;
+                        break;
+                    }
+                }
+                order.setStatus(accepted ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED);
+                try {
+                    logSubmitted(order);
+                } catch (RuntimeException e) {
+                    System.out.println("Error submitting order: " + e.getMessage());
+                    break; // Its lines stay in available and are returned below
+                }
+                if (accepted) {
+                    for (int i = line; i < end; i++) {
+                        lineDemand[i].available -= lineQuantity[i];
+                    }
+                }
+                enqueue(accepted ? activeQueue : completedQueue, order);
+                results[index++] = accepted;
+                line = end;
+            }
+        } finally {
+            orderLock.unlock();
+            // Return whatever the accepted orders did not use
+            demands.forEachValue(demand -> bookService.releaseStock(demand.book, demand.available));
+        }
+        try {
+            awaitDurable();
+        } catch (RuntimeException e) {
+            System.out.println("Error submitting orders: " + e.getMessage());
+        }
+        return results;
+    }
+
     // Process next order in queue
     public void processNextOrder() {
-        if (activeQueue.isEmpty()) {
+        Order order;
+        orderLock.lock();
+        try {
+            order = activeQueue.isEmpty() ? null : activeQueue.poll();
+        } finally {
+            orderLock.unlock();
+        }
+        if (order == null) {
             System.out.println("No orders to process");
             return;
         }
 
-        Order order = activeQueue.poll();
-        if (order == null)
-            return;
-
         System.out.println("\nProcessing Order:");
         displayOrder(order);
 
-        switch (order.getStatus()) {
-            case CONFIRMED:
-                order.setStatus(OrderStatus.SHIPPING);
-                System.out.println("Order #" + order.getOrderId() + " is now shipping");
-                activeQueue.offer(order);
-                break;
-            case SHIPPING:
-                order.setStatus(OrderStatus.DELIVERED);
-                System.out.println("Order #" + order.getOrderId() + " is delivered");
-                moveToCompleted(order);
-                break;
-            case DELIVERED:
-            case CANCELLED:
-                moveToCompleted(order);
-                break;
-        }
-    }
-
-    // Move order to completed queue
+        try {
+            switch (order.getStatus()) {
+                case CONFIRMED:
+                    logStatus(order, OrderStatus.SHIPPING, true);
+                    order.setStatus(OrderStatus.SHIPPING);
+                    System.out.println("Order #" + order.getOrderId() + " is now shipping");
+                    enqueue(activeQueue, order);
+                    break;
+                case SHIPPING:
+                    // Logged as one step; if completing fails, the order stays active as DELIVERED
+                    logStatus(order, OrderStatus.DELIVERED, false);
+                    order.setStatus(OrderStatus.DELIVERED);
+                    System.out.println("Order #" + order.getOrderId() + " is delivered");
+                    moveToCompleted(order);
+                    break;
+                case DELIVERED:
+                case CANCELLED:
+                    moveToCompleted(order);
+                    break;
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error processing order: " + e.getMessage());
+            enqueue(activeQueue, order); // Its move was not logged, so it stays active
+            return;
+        }
+        try {
+            awaitDurable();
+        } catch (RuntimeException e) {
+            System.out.println("Error processing order: " + e.getMessage());
+        }
+    }
+
+    // Move order (already polled from active queue) to completed queue; logged first
     private void moveToCompleted(Order order) {
-        activeQueue.poll();
-        completedQueue.offer(order);
+        if (changeLog != null) {
+            changeLog.orderCompleted(order.getOrderId());
+        }
+        enqueue(completedQueue, order);
+    }
+
+    // Report a submitted (confirmed or cancelled) order to the change log, before it is queued;
+    // if that fails, the order goes back to PENDING
+    private void logSubmitted(Order order) {
+        if (changeLog != null) {
+            try {
+                changeLog.orderSubmitted(order);
+            } catch (RuntimeException e) {
+                order.setStatus(OrderStatus.PENDING);
+                throw e;
+            }
+        }
+    }
+
+    // Report a status change to the change log before it is made; requeued if the order goes
+    // back to the active tail
+    private void logStatus(Order order, OrderStatus status, boolean requeued) {
+        if (changeLog != null) {
+            changeLog.orderStatusChanged(order.getOrderId(), status, requeued);
+        }
+    }
+
+    // Wait until the changes this thread logged are durable; call with no locks held
+    private void awaitDurable() {
+        IChangeLog log = changeLog;
+        if (log != null) {
+            log.awaitDurable();
+        }
+    }
+
+    // Take the front active order for fulfillment, or null if none.
+    // Until it is completed, findOrderQueue reports no queue for it.
+    public Order takeActiveOrder() {
+        orderLock.lock();
+        try {
+            if (activeQueue.isEmpty()) {
+                return null;
+            }
+            Order order = activeQueue.poll();
+            OrderLocation location = orderIndex.get(order.getOrderId());
+            if (location != null) {
+                location.queue = null;
+            }
+            return order;
+        } finally {
+            orderLock.unlock();
+        }
+    }
+
+    // Change order status if it is still in the expected status, returns false otherwise
+    public boolean advanceOrder(Order order, OrderStatus from, OrderStatus to) {
+        if (order == null || from == null || to == null) {
+            throw new IllegalArgumentException("Arguments cannot be null");
+        }
+        orderLock.lock();
+        try {
+            if (order.getStatus() != from) {
+                return false;
+            }
+            logStatus(order, to, false);
+            order.setStatus(to);
+        } finally {
+            orderLock.unlock();
+        }
+        awaitDurable();
+        return true;
+    }
+
+    // Move a fulfilled (or cancelled) order taken with takeActiveOrder to the completed queue
+    public void completeOrder(Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        moveToCompleted(order);
+        awaitDurable();
+    }
+
+    // Put a recovered order back at the tail of the active or completed queue, without logging
+    public void restoreOrder(Order order, boolean completed) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        enqueue(completed ? completedQueue : activeQueue, order);
+    }
+
+    // Get active orders in queue order
+    public Order[] getActiveOrders() {
+        return toArray(activeQueue);
+    }
+
+    // Get completed orders in queue order
+    public Order[] getCompletedOrders() {
+        return toArray(completedQueue);
+    }
+
+    // Get number of orders in status, without scanning
+    public int getOrderCount(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        return statusBuckets.count(status);
+    }
+
+    // Get number of orders per status, indexed by status ordinal
+    public int[] getStatusCounts() {
+        return statusBuckets.counts();
+    }
+
+    // Get orders in status, in the order they reached it; touches only those orders
+    public Order[] getOrdersByStatus(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        return statusBuckets.toArray(status);
+    }
+
+    // Copy queue contents under the order lock
+    private Order[] toArray(IOrderQueue<Order> queue) {
+        orderLock.lock();
+        try {
+            Order[] orders = new Order[queue.size()];
+            int[] count = {0};
+            queue.forEach(order -> {
+                if (count[0] < orders.length) {
+                    orders[count[0]++] = order;
+                }
+            });
+            return count[0] == orders.length ? orders : Arrays.copyOf(orders, count[0]);
+        } finally {
+            orderLock.unlock();
+        }
     }
 
     // Display all orders in both queues
@@ -155,28 +470,10 @@ public class OrderService {
         System.out.println("\n=== Current Order Status ===");
 
         System.out.println("\nActive Orders:");
-        if (activeQueue.isEmpty()) {
-            System.out.println("No active orders");
-        } else {
-            System.out.println(Order.getTableHeader());
-            Order current = activeQueue.peek();
-            while (current != null) {
-                System.out.println(current);
-                current = current.next;
-            }
-        }
+        printQueue(activeQueue, "No active orders");
 
         System.out.println("\nCompleted Orders:");
-        if (completedQueue.isEmpty()) {
-            System.out.println("No completed orders");
-        } else {
-            System.out.println(Order.getTableHeader());
-            Order current = completedQueue.peek();
-            while (current != null) {
-                System.out.println(current);
-                current = current.next;
-            }
-        }
+        printQueue(completedQueue, "No completed orders");
     }
 
     // Display active orders
@@ -189,50 +486,54 @@ public class OrderService {
         displayQueue(completedQueue, "Completed");
     }
 
-    // Display orders from specified queue
-    private void displayQueue(OrderQueue<Order> queue, String type) {
-        if (queue.isEmpty()) {
-            System.out.println("No " + type.toLowerCase() + " orders");
-            return;
+    // Display number of orders in each status
+    public void displayStatusDashboard() {
+        int[] counts = statusBuckets.counts();
+        int total = 0;
+        System.out.println("\n=== Order Status Dashboard ===");
+        for (OrderStatus status : OrderStatus.values()) {
+            System.out.printf("%-10s %8d%n", status, counts[status.ordinal()]);
+            total += counts[status.ordinal()];
         }
+        System.out.printf("%-10s %8d%n", "TOTAL", total);
+    }
 
-        System.out.println("\n=== " + type + " Orders ===");
+    // Display orders in status
+    public void displayOrdersByStatus(OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("Status cannot be null");
+        }
+        System.out.println("\n=== " + status + " Orders ===");
+        Order[] orders = statusBuckets.toArray(status);
+        if (orders.length == 0) {
+            System.out.println("No " + status.toString().toLowerCase() + " orders");
+            return;
+        }
         System.out.println(Order.getTableHeader());
-
-        Order current = queue.peek();
-        while (current != null) {
-            System.out.println(current);
-            current = current.next;
+        for (Order order : orders) {
+            System.out.println(order);
         }
     }
 
-    // Update inventory after order processing
-    private void updateInventoryStock(Order order) {
-        InventoryItem<Book>[] orderItems = order.getBooks().getEntries();
-
-        for (int i = 0; i < orderItems.length; i++) {
-            InventoryItem<Book> item = orderItems[i];
-            Book book = item.getBook();
-
-            int currentStock = book.getQuantity();
-            int orderedQuantity = item.getQuantity();
-
-            if (currentStock < orderedQuantity) {
-                throw new IllegalStateException("Insufficient stock for book: " + book.getTitle());
-            }
-
-            bookService.updateStock(book.getBookID(), currentStock - orderedQuantity);
-        }
+    // Display orders from specified queue
+    private void displayQueue(IOrderQueue<Order> queue, String type) {
+        System.out.println("\n=== " + type + " Orders ===");
+        printQueue(queue, "No " + type.toLowerCase() + " orders");
     }
 
-    // Check if inventory has sufficient stock
-    private boolean validateInventory(Order order) {
-        for (InventoryItem<Book> item : order.getBooks().getEntries()) {
-            if (item.getBook().getQuantity() < item.getQuantity()) {
-                return false;
+    // Print queue contents as a table, holding the order lock so the queue cannot change mid-walk
+    private void printQueue(IOrderQueue<Order> queue, String emptyMessage) {
+        orderLock.lock();
+        try {
+            if (queue.isEmpty()) {
+                System.out.println(emptyMessage);
+                return;
             }
+            System.out.println(Order.getTableHeader());
+            queue.forEach(System.out::println);
+        } finally {
+            orderLock.unlock();
         }
-        return true;
     }
 
     // Validate order details
@@ -0,0 +1,203 @@
+package services;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import data_structures.ChangeQueue;
+import data_structures.IndexedMinHeap;
+import data_structures.IntHashMap;
+import interfaces.IStockListener;
+import models.Book;
+
+// Watches stock levels for BookService: an indexed min-heap of per-book quantities answers
+// "k lowest-stock books" in O(k log k), and listeners hear when a book crosses the reorder
+// threshold. Crossings are detected from each stock change's old and new quantity, so they fire
+// at once with no scan. Like StockRangeIndex, the heap is updated from a lock-free queue of
+// changed books before each query (or once many changes are pending). Thread-safe.
+public class StockMonitor {
+    public static final int DEFAULT_THRESHOLD = 5;
+    private static final int DRAIN_THRESHOLD = 4096; // Pending changes before a writer updates the heap
+
+    private final IndexedMinHeap heap; // Book ID -> quantity when last updated
+    private final IntHashMap<Book> books; // Book ID -> book, for books in the heap
+    private final ChangeQueue<Book> changed; // Books whose stock changed since the last update
+    private final ReentrantLock lock; // Guards heap and books
+    private volatile int threshold; // Stock below this is low
+    private volatile IStockListener[] listeners; // Replaced on change, so firing needs no lock
+
+    // Initialize with the default reorder threshold
+    public StockMonitor() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    // Initialize with reorder threshold (stock below it is low)
+    public StockMonitor(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative");
+        }
+        this.heap = new IndexedMinHeap();
+        this.books = new IntHashMap<>();
+        this.changed = new ChangeQueue<>();
+        this.lock = new ReentrantLock();
+        this.threshold = threshold;
+        this.listeners = new IStockListener[0];
+    }
+
+    // Register listener for threshold crossings
+    public synchronized void addListener(IStockListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        IStockListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    // Unregister listener, returns false if it was not registered
+    public synchronized boolean removeListener(IStockListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                IStockListener[] updated = new IStockListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Set reorder threshold; applies to later changes (no events fire for books already past it)
+    public void setThreshold(int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold cannot be negative");
+        }
+        this.threshold = threshold;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    // Start watching book (no event fires for its initial stock)
+    public void add(Book book) {
+        lock.lock();
+        try {
+            if (!books.containsKey(book.getBookID())) {
+                books.put(book.getBookID(), book);
+                heap.put(book.getBookID(), book.getQuantity());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Start watching many books
+    public void addAll(Book[] added) {
+        lock.lock();
+        try {
+            books.ensureCapacity(books.size() + added.length);
+            heap.ensureCapacity(heap.size() + added.length);
+            for (Book book : added) {
+                if (!books.containsKey(book.getBookID())) {
+                    books.put(book.getBookID(), book);
+                    heap.put(book.getBookID(), book.getQuantity());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stop watching book
+    public void remove(Book book) {
+        lock.lock();
+        try {
+            if (books.remove(book.getBookID()) != null) {
+                heap.remove(book.getBookID());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Record one stock change (one successful CAS, so each transition is seen exactly once)
+    public void stockChanged(Book book, int previous, int current) {
+        int limit = threshold;
+        if (previous >= limit && current < limit) {
+            for (IStockListener listener : listeners) {
+                notify(listener, book, current, true);
+            }
+        } else if (previous < limit && current >= limit) {
+            for (IStockListener listener : listeners) {
+                notify(listener, book, current, false);
+            }
+        }
+        if (changed.add(book) >= DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                update();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Get up to k books with the lowest stock, lowest first (ties by ID)
+    public Book[] getLowestStock(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        lock.lock();
+        try {
+            update();
+            return toBooks(heap.smallest(k));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Get every book below the reorder threshold, lowest stock first
+    public Book[] getLowStockBooks() {
+        lock.lock();
+        try {
+            update();
+            return toBooks(heap.below(threshold));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A failing listener must not break the stock change that triggered it
+    private static void notify(IStockListener listener, Book book, int quantity, boolean low) {
+        try {
+            if (low) {
+                listener.lowStock(book, quantity);
+            } else {
+                listener.restocked(book, quantity);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error in stock listener: " + e.getMessage());
+        }
+    }
+
+    // Re-key every queued book by its current stock; caller must hold the lock.
+    // Takes only the changes queued so far, so busy writers cannot keep it running.
+    private void update() {
+        for (int pending = changed.pending(); pending > 0; pending--) {
+            Book book = changed.poll();
+            if (book == null) {
+                return;
+            }
+            if (books.containsKey(book.getBookID())) {
+                heap.put(book.getBookID(), book.getQuantity());
+            }
+        }
+    }
+
+    private Book[] toBooks(int[] ids) {
+        Book[] result = new Book[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = books.get(ids[i]);
+        }
+        return result;
+    }
+}